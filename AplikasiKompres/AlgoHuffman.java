@@ -1,110 +1,1664 @@
 // HuffmanCompressor.java
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.Charset;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32C;
 
-class HuffmanNode implements Comparable<HuffmanNode> {
-    char character;
-    int frequency;
-    HuffmanNode left, right;
+public class AlgoHuffman {
+    private static final int ALPHABET_SIZE = 65536;
+    private static final int BYTE_ALPHABET_SIZE = 256;
+    
+    // Format file .huff: header, lalu blok-blok yang dikodekan terpisah
+    private static final int MAGIC = 0x48554646; // "HUFF"
+    private static final int FORMAT_VERSION = 9;
+    private static final int FLAG_BINARY = 1;
+    private static final int FLAG_SHARED_TABLE = 2;
+    private static final int FLAG_INDEXED = 4;
+    static final int BLOCK_END = 0;
+    static final int BLOCK_HUFFMAN = 1;
+    static final int BLOCK_HUFFMAN_STREAMS = 2;
+    static final int BLOCK_STORED = 3;
+    static final int BLOCK_SHARED = 4;
+    static final int BLOCK_LZ = 5;
+    static final int MAX_STREAMS = 255;
+    // Setiap frame blok diakhiri CRC32C isi blok sebelum dikompresi (char
+    // dihitung sebagai UTF-16BE); tidak termasuk dalam panjang payload
+    private static final int CHECKSUM_SIZE = 4;
+    // Blok yang terlalu kecil tetap satu stream; overhead header tidak sepadan
+    private static final int MIN_STREAM_SYMBOLS = 4096;
+    // Huffman dipakai hanya jika hemat minimal 1/STORED_MARGIN dari blok
+    // tersimpan; jika tidak, blok disalin apa adanya
+    private static final int STORED_MARGIN = 32;
+    static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    static final int MAX_CODE_LENGTH = 57;
+    
+    // Kode Huffman per simbol: bit kode dan panjangnya
+    private long[] codeBits;
+    private byte[] codeLengths;
+    private int[] frequencies;
+    
+    // Simbol blok saat ini, terurut naik, beserta panjang kodenya
+    private int[] blockSymbols;
+    private int[] blockLengths;
+    private int blockSize;
+    
+    // Mode biner: simbol adalah byte mentah, bukan char hasil decode charset
+    private boolean binaryMode;
+    
+    // Batas panjang kode Huffman; 0 = tanpa batas
+    private int maxCodeLength;
+    
+    // Jumlah bitstream per blok; 1 = format satu stream biasa
+    private int streams;
+    
+    // Mode pipeline: batas waktu penutupan blok dalam milidetik; 0 = mati
+    private long flushInterval;
+    
+    // Level tahap LZ (1-9) sebelum Huffman; 0 = hanya Huffman
+    private int level;
+    private LzParser lzParser;
+    
+    // Tulis indeks blok di akhir file untuk akses acak (decompressRange)
+    private boolean indexed;
+    
+    // Tabel kode bersama: dipakai saat kompresi jika diset, dan tabel yang
+    // direferensikan header saat dekompresi
+    private CodeTable codeTable;
+    private CodeTable sharedTable;
+    
+    // Metrik per tahap; bisa dibagi ke beberapa instance lewat setMetrics
+    private CodecMetrics metrics;
+    
+    // Mode paralel: setiap blok dikodekan di thread worker
+    private int threads;
+    private ExecutorService executor;
+    private ThreadLocal<AlgoHuffman> workers;
+    
+    // Buffer yang dipakai ulang antar blok (data terkompresi atau blok
+    // tersimpan, dan hasil decode)
+    private byte[] compressedData;
+    private char[] decodedBlock;
+    private byte[] decodedBytes;
+    private byte[] lzCodes;
+    private CRC32C checksum;
+    private ByteBuffer checksumBuffer;
+    
+    public AlgoHuffman() {
+        codeBits = new long[ALPHABET_SIZE];
+        codeLengths = new byte[ALPHABET_SIZE];
+        frequencies = new int[ALPHABET_SIZE];
+        blockSymbols = new int[0];
+        blockLengths = new int[0];
+        blockSize = DEFAULT_BLOCK_SIZE;
+        threads = 1;
+        streams = 1;
+        metrics = new CodecMetrics();
+        compressedData = new byte[0];
+        decodedBlock = new char[0];
+        decodedBytes = new byte[0];
+        lzCodes = new byte[0];
+        checksum = new CRC32C();
+        checksumBuffer = ByteBuffer.allocate(0);
+    }
     
-    public HuffmanNode(char character, int frequency) {
-        this.character = character;
-        this.frequency = frequency;
-        this.left = null;
-        this.right = null;
+    public void setBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Ukuran blok harus positif: " + blockSize);
+        }
+        this.blockSize = blockSize;
     }
     
-    public HuffmanNode(char character, int frequency, HuffmanNode left, HuffmanNode right) {
-        this.character = character;
-        this.frequency = frequency;
-        this.left = left;
-        this.right = right;
+    // Kompresi byte mentah: file biner dan teks apa pun kembali persis sama
+    public void setBinaryMode(boolean binaryMode) {
+        this.binaryMode = binaryMode;
     }
     
-    public boolean isLeaf() {
-        return left == null && right == null;
+    // Batasi panjang kode (mis. 11, 12 atau 15 bit) agar encoder dan decoder
+    // bisa memakai tabel berukuran tetap. Jika alfabet blok terlalu besar untuk
+    // batas ini, batas dinaikkan secukupnya untuk blok tersebut.
+    public void setMaxCodeLength(int maxCodeLength) {
+        if (maxCodeLength < 0 || maxCodeLength > MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("Batas panjang kode harus 0.." + MAX_CODE_LENGTH + ": " + maxCodeLength);
+        }
+        this.maxCodeLength = maxCodeLength;
     }
     
-    @Override
-    public int compareTo(HuffmanNode other) {
-        return this.frequency - other.frequency;
+    // Pecah setiap blok menjadi beberapa bitstream dengan tabel kode yang sama
+    // (mis. 4) agar decoder bisa memproses beberapa stream sekaligus
+    public void setStreams(int streams) {
+        if (streams <= 0 || streams > MAX_STREAMS) {
+            throw new IllegalArgumentException("Jumlah stream harus 1.." + MAX_STREAMS + ": " + streams);
+        }
+        this.streams = streams;
     }
-}
-
-public class AlgoHuffman {
-    private Map<Character, String> huffmanCodes;
-    private Map<Character, Integer> frequencyMap;
     
-    public AlgoHuffman() {
-        huffmanCodes = new HashMap<>();
-        frequencyMap = new HashMap<>();
+    // Cari pengulangan (back-reference) dengan hash chain sebelum Huffman.
+    // Level 1 paling cepat, level 9 paling rapat; blok tetap memakai Huffman
+    // biasa jika hasil LZ tidak lebih kecil.
+    public void setLevel(int level) {
+        if (level < 0 || level > LzParser.MAX_LEVEL) {
+            throw new IllegalArgumentException("Level harus 0.." + LzParser.MAX_LEVEL + ": " + level);
+        }
+        this.level = level;
+        this.lzParser = null;
+    }
+    
+    // Mode pipeline untuk stream yang datang bertahap (stdin/stdout): blok
+    // ditutup saat penuh (setBlockSize) atau millis setelah byte pertamanya,
+    // lalu langsung di-flush. Dekompresi juga mem-flush output setiap blok.
+    public void setFlushInterval(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Interval flush tidak boleh negatif: " + millis);
+        }
+        this.flushInterval = millis;
+    }
+    
+    // Tambahkan indeks blok di akhir file agar sebagian isi bisa dibaca dengan
+    // decompressRange tanpa decode seluruh file. Granularitas akses acak
+    // adalah satu blok (setBlockSize).
+    public void setIndexed(boolean indexed) {
+        this.indexed = indexed;
+    }
+    
+    // Kodekan blok dengan tabel yang sudah dilatih (lihat CodeTable) tanpa
+    // membangun pohon per blok. Tabel didaftarkan agar bisa didekompresi
+    // oleh proses yang sama; proses lain memuatnya dengan CodeTable.load.
+    public void setCodeTable(CodeTable codeTable) {
+        if (codeTable != null) {
+            CodeTable.register(codeTable);
+        }
+        this.codeTable = codeTable;
+    }
+    
+    // Metrik yang dikumpulkan instance ini (dan worker paralelnya)
+    public CodecMetrics getMetrics() {
+        return metrics;
+    }
+    
+    public void setMetrics(CodecMetrics metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrik tidak boleh null");
+        }
+        this.metrics = metrics;
+    }
+    
+    // Jumlah thread untuk kompresi/dekompresi blok; 1 = sekuensial
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Jumlah thread harus positif: " + threads);
+        }
+        this.threads = threads;
+    }
+    
+    // Executor milik pemanggil; jika null dibuat ForkJoinPool sendiri per operasi
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+    
+    // Executor beserta codec worker-nya (lihat newWorkers). Instance yang
+    // memakai pool yang sama sebaiknya juga memakai workers yang sama.
+    public void setExecutor(ExecutorService executor, ThreadLocal<AlgoHuffman> workers) {
+        this.executor = executor;
+        this.workers = workers;
+    }
+    
+    // Codec per thread worker untuk mode paralel. Dibuat sekali per pool,
+    // misalnya per batch, agar tabel dan buffer worker tidak dialokasikan
+    // ulang untuk setiap file; pengaturannya disalin dari instance pemanggil
+    // setiap kali blok dijalankan.
+    public static ThreadLocal<AlgoHuffman> newWorkers() {
+        return ThreadLocal.withInitial(AlgoHuffman::new);
     }
     
     public void compress(String content, String outputFileName) throws IOException {
+        OutputStream out = new FileOutputStream(outputFileName);
+        try {
+            compress(new StringReader(content), out);
+        } finally {
+            out.close();
+        }
+    }
+    
+    public void decompress(String inputFileName, String outputFileName) throws IOException {
+        InputStream in = new ChannelIO.MappedInputStream(openInput(inputFileName));
+        try {
+            OutputStream out = new ChannelIO.ChannelOutputStream(openOutput(outputFileName));
+            try {
+                decompress(in, out);
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+    
+    // Jalur NIO: file input di-map ke memori, hasil ditulis lewat FileChannel
+    public void compressFile(String inputFileName, String outputFileName) throws IOException {
+        FileChannel input = openInput(inputFileName);
+        try {
+            OutputStream out = new ChannelIO.ChannelOutputStream(openOutput(outputFileName));
+            try {
+                if (binaryMode) {
+                    compressBytes(new ChannelIO.MappedInputStream(input), out);
+                } else {
+                    compress(new ChannelIO.MappedReader(input, Charset.defaultCharset()), out);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            input.close();
+        }
+    }
+    
+    private static FileChannel openInput(String fileName) throws IOException {
+        return FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+    }
+    
+    private static FileChannel openOutput(String fileName) throws IOException {
+        return FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+    
+    // Kompresi dari stream dengan memori terbatas per blok. Mode teks membaca
+    // dengan charset platform, mode biner membaca byte apa adanya. Mode
+    // pipeline (setFlushInterval) selalu biner agar hasilnya byte-exact.
+    public void compress(InputStream in, OutputStream out) throws IOException {
+        if (flushInterval > 0) {
+            compressStream(in, out);
+        } else if (binaryMode) {
+            compressBytes(in, out);
+        } else {
+            compress(new InputStreamReader(in), out);
+        }
+    }
+    
+    // Mode (teks/biner) dibaca dari header file
+    public void decompress(InputStream in, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        ChannelIO.CountingInputStream counter = new ChannelIO.CountingInputStream(new BufferedInputStream(in));
+        DataInputStream dis = new DataInputStream(counter);
+        int flags = readFileHeader(dis);
+        
+        long totalSymbols;
+        try {
+            if ((flags & FLAG_BINARY) != 0) {
+                BufferedOutputStream bos = new BufferedOutputStream(out);
+                totalSymbols = decompressBytes(dis, bos);
+                bos.flush();
+            } else {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out));
+                totalSymbols = decompressChars(dis, writer);
+                writer.flush();
+            }
+            
+            if (dis.readLong() != totalSymbols) {
+                throw new IOException("Jumlah karakter tidak sesuai, file mungkin rusak");
+            }
+        } catch (EOFException e) {
+            throw new IOException("File terpotong", e);
+        }
+        metrics.addOperation(System.nanoTime() - start, totalSymbols, counter.getCount());
+    }
+    
+    // Periksa keutuhan file .huff tanpa menulis hasil: setiap blok di-decode
+    // ke buffer yang dipakai ulang lalu dicocokkan dengan CRC32C-nya. Hasilnya
+    // jumlah simbol; kerusakan dilaporkan sebagai IOException.
+    public long verify(String inputFileName) throws IOException {
+        InputStream in = new ChannelIO.MappedInputStream(openInput(inputFileName));
+        try {
+            return verify(in);
+        } finally {
+            in.close();
+        }
+    }
+    
+    public long verify(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        ChannelIO.CountingInputStream counter = new ChannelIO.CountingInputStream(new BufferedInputStream(in));
+        DataInputStream dis = new DataInputStream(counter);
+        boolean binary = (readFileHeader(dis) & FLAG_BINARY) != 0;
+        
+        long totalSymbols = 0;
+        try {
+            if (threads > 1) {
+                long[] total = new long[1];
+                runBlocksParallel(() -> {
+                    int type = readBlockType(dis);
+                    if (type == BLOCK_END) return null;
+                    byte[] payload = readBlockPayload(dis);
+                    return worker -> worker.decodeBlock(new DataInputStream(new ByteArrayInputStream(payload)), type, binary);
+                }, symbolCount -> total[0] += symbolCount);
+                totalSymbols = total[0];
+            } else {
+                int type;
+                while ((type = readBlockType(dis)) != BLOCK_END) {
+                    dis.readInt();
+                    totalSymbols += decodeBlock(dis, type, binary);
+                }
+            }
+            if (dis.readLong() != totalSymbols) {
+                throw new IOException("Jumlah simbol tidak sesuai, file mungkin rusak");
+            }
+        } catch (EOFException e) {
+            throw new IOException("File terpotong", e);
+        }
+        metrics.addOperation(System.nanoTime() - start, totalSymbols, counter.getCount());
+        return totalSymbols;
+    }
+    
+    private void compress(Reader reader, OutputStream out) throws IOException {
+        long operationStart = System.nanoTime();
+        ChannelIO.CountingOutputStream counter = new ChannelIO.CountingOutputStream(new BufferedOutputStream(out));
+        DataOutputStream dos = new DataOutputStream(counter);
+        SeekIndex index = indexed ? new SeekIndex() : null;
+        writeFileHeader(dos, 0);
+        metrics.recordBuffers(2 * (long) blockSize * (threads > 1 ? 2 * threads : 1));
+        
+        long totalChars = 0;
+        if (threads > 1) {
+            long[] total = new long[1];
+            runBlocksParallel(() -> {
+                char[] block = new char[blockSize];
+                int length = readBlock(reader, block);
+                if (length == 0) return null;
+                if (index != null) index.addSymbol(total[0]);
+                total[0] += length;
+                return worker -> {
+                    ByteArrayOutputStream encoded = new ByteArrayOutputStream(length);
+                    DataOutputStream blockOut = new DataOutputStream(encoded);
+                    worker.encodeBlock(block, length, blockOut, new BitWriter(blockOut));
+                    return encoded;
+                };
+            }, encoded -> {
+                long start = System.nanoTime();
+                if (index != null) index.addBlock(counter.getCount());
+                encoded.writeTo(dos);
+                metrics.add(CodecMetrics.Phase.IO, System.nanoTime() - start);
+            });
+            totalChars = total[0];
+        } else {
+            char[] block = new char[blockSize];
+            BitWriter writer = new BitWriter(dos);
+            int length;
+            while ((length = readBlock(reader, block)) > 0) {
+                if (index != null) {
+                    index.addBlock(counter.getCount());
+                    index.addSymbol(totalChars);
+                }
+                encodeBlock(block, length, dos, writer);
+                totalChars += length;
+            }
+        }
+        
+        writeFileEnd(dos, totalChars, index, counter);
+        metrics.addOperation(System.nanoTime() - operationStart, totalChars, counter.getCount());
+    }
+    
+    private void compressBytes(InputStream in, OutputStream out) throws IOException {
+        long operationStart = System.nanoTime();
+        ChannelIO.CountingOutputStream counter = new ChannelIO.CountingOutputStream(new BufferedOutputStream(out));
+        DataOutputStream dos = new DataOutputStream(counter);
+        SeekIndex index = indexed ? new SeekIndex() : null;
+        writeFileHeader(dos, FLAG_BINARY);
+        metrics.recordBuffers((long) blockSize * (threads > 1 ? 2 * threads : 1));
+        
+        long totalBytes = 0;
+        if (threads > 1) {
+            long[] total = new long[1];
+            runBlocksParallel(() -> {
+                byte[] block = new byte[blockSize];
+                int length = readBlock(in, block);
+                if (length == 0) return null;
+                if (index != null) index.addSymbol(total[0]);
+                total[0] += length;
+                return worker -> {
+                    ByteArrayOutputStream encoded = new ByteArrayOutputStream(length);
+                    DataOutputStream blockOut = new DataOutputStream(encoded);
+                    worker.encodeBlock(block, length, blockOut, new BitWriter(blockOut));
+                    return encoded;
+                };
+            }, encoded -> {
+                long start = System.nanoTime();
+                if (index != null) index.addBlock(counter.getCount());
+                encoded.writeTo(dos);
+                metrics.add(CodecMetrics.Phase.IO, System.nanoTime() - start);
+            });
+            totalBytes = total[0];
+        } else {
+            byte[] block = new byte[blockSize];
+            BitWriter writer = new BitWriter(dos);
+            int length;
+            while ((length = readBlock(in, block)) > 0) {
+                if (index != null) {
+                    index.addBlock(counter.getCount());
+                    index.addSymbol(totalBytes);
+                }
+                encodeBlock(block, length, dos, writer);
+                totalBytes += length;
+            }
+        }
+        
+        writeFileEnd(dos, totalBytes, index, counter);
+        metrics.addOperation(System.nanoTime() - operationStart, totalBytes, counter.getCount());
+    }
+    
+    // Blok sekuensial dari TimedBlockReader; setiap blok langsung di-flush
+    private void compressStream(InputStream in, OutputStream out) throws IOException {
+        long operationStart = System.nanoTime();
+        ChannelIO.CountingOutputStream counter = new ChannelIO.CountingOutputStream(new BufferedOutputStream(out));
+        DataOutputStream dos = new DataOutputStream(counter);
+        SeekIndex index = indexed ? new SeekIndex() : null;
+        writeFileHeader(dos, FLAG_BINARY);
+        dos.flush();
+        metrics.recordBuffers(blockSize);
+        
+        long totalBytes = 0;
+        TimedBlockReader reader = new TimedBlockReader(in, flushInterval);
+        try {
+            byte[] block = new byte[blockSize];
+            BitWriter writer = new BitWriter(dos);
+            int length;
+            while ((length = reader.read(block)) > 0) {
+                if (index != null) {
+                    index.addBlock(counter.getCount());
+                    index.addSymbol(totalBytes);
+                }
+                encodeBlock(block, length, dos, writer);
+                totalBytes += length;
+                dos.flush();
+            }
+        } finally {
+            reader.close();
+        }
+        
+        writeFileEnd(dos, totalBytes, index, counter);
+        metrics.addOperation(System.nanoTime() - operationStart, totalBytes, counter.getCount());
+    }
+    
+    private long decompressChars(DataInputStream dis, Writer writer) throws IOException {
+        long totalChars = 0;
+        if (threads > 1) {
+            long[] total = new long[1];
+            runBlocksParallel(() -> {
+                int type = readBlockType(dis);
+                if (type == BLOCK_END) return null;
+                byte[] payload = readBlockPayload(dis);
+                return worker -> {
+                    int symbolCount = worker.decodeBlock(new DataInputStream(new ByteArrayInputStream(payload)), type, false);
+                    return Arrays.copyOf(worker.decodedBlock, symbolCount);
+                };
+            }, decoded -> {
+                long start = System.nanoTime();
+                writer.write(decoded);
+                if (flushInterval > 0) writer.flush();
+                metrics.add(CodecMetrics.Phase.IO, System.nanoTime() - start);
+                total[0] += decoded.length;
+            });
+            totalChars = total[0];
+        } else {
+            int type;
+            while ((type = readBlockType(dis)) != BLOCK_END) {
+                dis.readInt(); // panjang payload, hanya dipakai mode paralel
+                int symbolCount = decodeBlock(dis, type, false);
+                long start = System.nanoTime();
+                writer.write(decodedBlock, 0, symbolCount);
+                if (flushInterval > 0) writer.flush();
+                metrics.add(CodecMetrics.Phase.IO, System.nanoTime() - start);
+                totalChars += symbolCount;
+            }
+        }
+        return totalChars;
+    }
+    
+    private long decompressBytes(DataInputStream dis, OutputStream out) throws IOException {
+        long totalBytes = 0;
+        if (threads > 1) {
+            long[] total = new long[1];
+            runBlocksParallel(() -> {
+                int type = readBlockType(dis);
+                if (type == BLOCK_END) return null;
+                byte[] payload = readBlockPayload(dis);
+                return worker -> {
+                    int symbolCount = worker.decodeBlock(new DataInputStream(new ByteArrayInputStream(payload)), type, true);
+                    return Arrays.copyOf(worker.decodedBytes, symbolCount);
+                };
+            }, decoded -> {
+                long start = System.nanoTime();
+                out.write(decoded);
+                if (flushInterval > 0) out.flush();
+                metrics.add(CodecMetrics.Phase.IO, System.nanoTime() - start);
+                total[0] += decoded.length;
+            });
+            totalBytes = total[0];
+        } else {
+            int type;
+            while ((type = readBlockType(dis)) != BLOCK_END) {
+                dis.readInt(); // panjang payload, hanya dipakai mode paralel
+                int symbolCount = decodeBlock(dis, type, true);
+                long start = System.nanoTime();
+                out.write(decodedBytes, 0, symbolCount);
+                if (flushInterval > 0) out.flush();
+                metrics.add(CodecMetrics.Phase.IO, System.nanoTime() - start);
+                totalBytes += symbolCount;
+            }
+        }
+        return totalBytes;
+    }
+    
+    private void writeFileHeader(DataOutputStream dos, int flags) throws IOException {
+        if (codeTable != null && codeTable.isBinary() != ((flags & FLAG_BINARY) != 0)) {
+            throw new IOException("Mode tabel kode bersama tidak sesuai dengan mode kompresi");
+        }
+        if (indexed) {
+            flags |= FLAG_INDEXED;
+        }
+        dos.writeInt(MAGIC);
+        dos.writeByte(FORMAT_VERSION);
+        if (codeTable == null) {
+            dos.writeByte(flags);
+        } else {
+            dos.writeByte(flags | FLAG_SHARED_TABLE);
+            dos.writeInt(codeTable.getId());
+        }
+    }
+    
+    private void writeFileEnd(DataOutputStream dos, long totalSymbols, SeekIndex index,
+                              ChannelIO.CountingOutputStream counter) throws IOException {
+        long endOffset = counter.getCount();
+        dos.writeByte(BLOCK_END);
+        dos.writeLong(totalSymbols);
+        if (index != null) {
+            index.addBlock(endOffset);
+            index.addSymbol(totalSymbols);
+            index.write(dos, counter.getCount());
+        }
+        dos.flush();
+    }
+    
+    private int readFileHeader(DataInputStream dis) throws IOException {
+        if (dis.readInt() != MAGIC) {
+            throw new IOException("Bukan file .huff yang valid");
+        }
+        int version = dis.readUnsignedByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Versi format tidak didukung: " + version);
+        }
+        int flags = dis.readUnsignedByte();
+        sharedTable = null;
+        if ((flags & FLAG_SHARED_TABLE) != 0) {
+            int id = dis.readInt();
+            sharedTable = CodeTable.forId(id);
+            if (sharedTable == null) {
+                throw new IOException("Tabel kode bersama tidak dikenal: " + id);
+            }
+            if (sharedTable.isBinary() != ((flags & FLAG_BINARY) != 0)) {
+                throw new IOException("Mode tabel kode bersama tidak sesuai: " + id);
+            }
+        }
+        return flags;
+    }
+    
+    // Akses acak pada file terindeks (lihat setIndexed): hanya blok yang memuat
+    // byte [offset, offset + length) yang di-decode. Rentang yang melewati akhir
+    // isi file dipotong.
+    public byte[] decompressRange(String fileName, long offset, int length) throws IOException {
+        checkRange(offset, length);
+        FileChannel channel = openInput(fileName);
+        try {
+            SeekIndex index = readSeekIndex(channel, true);
+            long end = Math.min(index.totalSymbols(), offset + length);
+            byte[] result = new byte[(int) Math.max(0, end - offset)];
+            long position = offset;
+            for (int block = index.findBlock(offset); position < end; block++) {
+                int symbolCount = decodeBlockAt(channel, index, block, true);
+                int from = (int) (position - index.symbolOffset(block));
+                int n = (int) Math.min(symbolCount - from, end - position);
+                System.arraycopy(decodedBytes, from, result, (int) (position - offset), n);
+                position += n;
+            }
+            return result;
+        } finally {
+            channel.close();
+        }
+    }
+    
+    // Varian mode teks: offset dan panjang dalam char
+    public String decompressTextRange(String fileName, long offset, int length) throws IOException {
+        checkRange(offset, length);
+        FileChannel channel = openInput(fileName);
+        try {
+            SeekIndex index = readSeekIndex(channel, false);
+            long end = Math.min(index.totalSymbols(), offset + length);
+            char[] result = new char[(int) Math.max(0, end - offset)];
+            long position = offset;
+            for (int block = index.findBlock(offset); position < end; block++) {
+                int symbolCount = decodeBlockAt(channel, index, block, false);
+                int from = (int) (position - index.symbolOffset(block));
+                int n = (int) Math.min(symbolCount - from, end - position);
+                System.arraycopy(decodedBlock, from, result, (int) (position - offset), n);
+                position += n;
+            }
+            return new String(result);
+        } finally {
+            channel.close();
+        }
+    }
+    
+    private static void checkRange(long offset, int length) {
+        if (offset < 0 || length < 0) {
+            throw new IllegalArgumentException("Rentang tidak valid: " + offset + ", " + length);
+        }
+    }
+    
+    private SeekIndex readSeekIndex(FileChannel channel, boolean binary) throws IOException {
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+        int flags = readFileHeader(dis);
+        if ((flags & FLAG_INDEXED) == 0) {
+            throw new IOException("File tidak memiliki indeks akses acak");
+        }
+        if (((flags & FLAG_BINARY) != 0) != binary) {
+            throw new IOException(binary ? "File bukan hasil kompresi mode biner" : "File bukan hasil kompresi mode teks");
+        }
+        return SeekIndex.read(channel);
+    }
+    
+    // Baca dan decode satu blok langsung dari posisinya di file
+    private int decodeBlockAt(FileChannel channel, SeekIndex index, int block, boolean binary) throws IOException {
+        long position = index.blockOffset(block);
+        ByteBuffer frame = SeekIndex.readAt(channel, position, 5);
+        int type = frame.get() & 0xFF;
+        int payloadLength = frame.getInt();
+        if (type == BLOCK_END || type > BLOCK_LZ || payloadLength < 0) {
+            throw new IOException("Indeks file rusak");
+        }
+        ByteBuffer payload = SeekIndex.readAt(channel, position + 5, payloadLength + CHECKSUM_SIZE);
+        int symbolCount = decodeBlock(new DataInputStream(new ByteArrayInputStream(payload.array())), type, binary);
+        if (symbolCount != index.symbolOffset(block + 1) - index.symbolOffset(block)) {
+            throw new IOException("Indeks tidak sesuai dengan isi blok");
+        }
+        return symbolCount;
+    }
+    
+    // Tugas blok untuk mode paralel. BlockSource dipanggil di thread pemanggil
+    // dan mengembalikan null di akhir input; BlockJob berjalan di worker.
+    private interface BlockSource<T> {
+        BlockJob<T> next() throws IOException;
+    }
+    
+    private interface BlockJob<T> {
+        T run(AlgoHuffman worker) throws IOException;
+    }
+    
+    private interface BlockSink<T> {
+        void accept(T result) throws IOException;
+    }
+    
+    // Blok dibaca berurutan, diproses paralel, lalu hasilnya diserahkan sesuai
+    // urutan asli. Jumlah blok yang sedang diproses dibatasi agar memori tetap
+    // terbatas. Setiap thread worker memakai instance AlgoHuffman sendiri.
+    private <T> void runBlocksParallel(BlockSource<T> source, BlockSink<T> sink) throws IOException {
+        ExecutorService pool = executor != null ? executor : new ForkJoinPool(threads);
+        if (workers == null) {
+            workers = newWorkers();
+        }
+        ThreadLocal<AlgoHuffman> codecs = workers;
+        Deque<Future<T>> pending = new ArrayDeque<>();
+        try {
+            BlockJob<T> job;
+            while ((job = source.next()) != null) {
+                BlockJob<T> current = job;
+                pending.add(pool.submit(() -> current.run(worker(codecs))));
+                if (pending.size() >= threads * 2) {
+                    sink.accept(awaitBlock(pending.poll()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                sink.accept(awaitBlock(pending.poll()));
+            }
+        } finally {
+            for (Future<T> future : pending) {
+                future.cancel(true);
+            }
+            if (executor == null) {
+                pool.shutdown();
+            }
+        }
+    }
+    
+    // Codec thread worker saat ini dengan pengaturan instance ini
+    private AlgoHuffman worker(ThreadLocal<AlgoHuffman> codecs) {
+        AlgoHuffman worker = codecs.get();
+        worker.threads = threads;
+        worker.maxCodeLength = maxCodeLength;
+        worker.streams = streams;
+        if (worker.level != level) {
+            worker.level = level;
+            worker.lzParser = null;
+        }
+        worker.codeTable = codeTable;
+        worker.sharedTable = sharedTable;
+        worker.metrics = metrics;
+        return worker;
+    }
+    
+    private static <T> T awaitBlock(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Proses blok dibatalkan");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Gagal memproses blok: " + cause, cause);
+        }
+    }
+    
+    private int readBlockType(DataInputStream dis) throws IOException {
+        int type = dis.readUnsignedByte();
+        if (type < BLOCK_END || type > BLOCK_LZ) {
+            throw new IOException("Tipe blok tidak dikenal: " + type);
+        }
+        return type;
+    }
+    
+    // Batas blok diketahui dari panjang payload, jadi setiap blok bisa
+    // dipotong tanpa di-decode lalu diserahkan ke worker (beserta checksum)
+    private byte[] readBlockPayload(DataInputStream dis) throws IOException {
+        int payloadLength = dis.readInt();
+        if (payloadLength < 0 || payloadLength > Integer.MAX_VALUE - CHECKSUM_SIZE) {
+            throw new IOException("Header blok rusak");
+        }
+        byte[] payload = new byte[payloadLength + CHECKSUM_SIZE];
+        dis.readFully(payload);
+        return payload;
+    }
+    
+    // Blok input yang sedang dikodekan: char (mode teks) atau byte (mode
+    // biner). Alur encode blok ditulis sekali untuk keduanya; hanya operasi
+    // per simbol di bawah ini yang bergantung pada tipe array.
+    private abstract class SymbolBlock {
+        final int length;
+        private long storedSize = -1;
+        
+        SymbolBlock(int length) {
+            this.length = length;
+        }
+        
+        // Ukuran data blok tersimpan, sama dengan yang ditulis writeStoredBlock
+        final long storedSize() {
+            if (storedSize < 0) {
+                storedSize = computeStoredSize();
+            }
+            return storedSize;
+        }
+        
+        abstract long computeStoredSize();
+        abstract void writeStoredBlock(DataOutputStream dos) throws IOException;
+        abstract void buildFrequencyMap();
+        abstract long segmentBits(int from, int to);
+        abstract void encodeSymbols(int from, int to, BitWriter writer) throws IOException;
+        abstract int checksum();
+        // Parse LZ; literal hasil parse dikodekan sebagai blok bertipe sama
+        abstract int parse(LzParser parser);
+        abstract SymbolBlock literals(LzParser parser);
+        // Panjang bit dengan tabel bersama, atau -1 jika tidak tercakup
+        abstract long sharedBitLength(CodeTable table);
+        abstract void encodeShared(CodeTable table, BitWriter writer) throws IOException;
+    }
+    
+    private final class CharBlock extends SymbolBlock {
+        private final char[] data;
+        
+        CharBlock(char[] data, int length) {
+            super(length);
+            this.data = data;
+        }
+        
+        @Override
+        long computeStoredSize() {
+            return storedCharsSize(data, length);
+        }
+        
+        @Override
+        void writeStoredBlock(DataOutputStream dos) throws IOException {
+            AlgoHuffman.this.writeStoredBlock(data, length, (int) storedSize(), dos);
+        }
+        
+        @Override
+        void buildFrequencyMap() {
+            AlgoHuffman.this.buildFrequencyMap(data, length);
+        }
+        
+        @Override
+        long segmentBits(int from, int to) {
+            return AlgoHuffman.this.segmentBits(data, from, to);
+        }
+        
+        @Override
+        void encodeSymbols(int from, int to, BitWriter writer) throws IOException {
+            AlgoHuffman.this.encodeSymbols(data, from, to, writer);
+        }
+        
+        @Override
+        int checksum() {
+            return AlgoHuffman.this.checksum(data, length);
+        }
+        
+        @Override
+        int parse(LzParser parser) {
+            return parser.parse(data, length);
+        }
+        
+        @Override
+        SymbolBlock literals(LzParser parser) {
+            return new CharBlock(parser.literalChars(), parser.literalCount());
+        }
+        
+        @Override
+        long sharedBitLength(CodeTable table) {
+            return table.bitLength(data, length);
+        }
+        
+        @Override
+        void encodeShared(CodeTable table, BitWriter writer) throws IOException {
+            table.encode(data, length, writer);
+        }
+    }
+    
+    private final class ByteBlock extends SymbolBlock {
+        private final byte[] data;
+        
+        ByteBlock(byte[] data, int length) {
+            super(length);
+            this.data = data;
+        }
+        
+        @Override
+        long computeStoredSize() {
+            return length;
+        }
+        
+        @Override
+        void writeStoredBlock(DataOutputStream dos) throws IOException {
+            AlgoHuffman.this.writeStoredBlock(data, length, dos);
+        }
+        
+        @Override
+        void buildFrequencyMap() {
+            AlgoHuffman.this.buildFrequencyMap(data, length);
+        }
+        
+        @Override
+        long segmentBits(int from, int to) {
+            return AlgoHuffman.this.segmentBits(data, from, to);
+        }
+        
+        @Override
+        void encodeSymbols(int from, int to, BitWriter writer) throws IOException {
+            AlgoHuffman.this.encodeSymbols(data, from, to, writer);
+        }
+        
+        @Override
+        int checksum() {
+            return AlgoHuffman.this.checksum(data, length);
+        }
+        
+        @Override
+        int parse(LzParser parser) {
+            return parser.parse(data, length);
+        }
+        
+        @Override
+        SymbolBlock literals(LzParser parser) {
+            return new ByteBlock(parser.literalBytes(), parser.literalCount());
+        }
+        
+        @Override
+        long sharedBitLength(CodeTable table) {
+            return table.bitLength(data, length);
+        }
+        
+        @Override
+        void encodeShared(CodeTable table, BitWriter writer) throws IOException {
+            table.encode(data, length, writer);
+        }
+    }
+    
+    // Kodekan satu blok lengkap dengan frame dan checksum-nya; dicatat ke
+    // metrik dan JFR
+    void encodeBlock(char[] block, int length, DataOutputStream dos, BitWriter writer) throws IOException {
+        encodeBlock(new CharBlock(block, length), dos, writer);
+    }
+    
+    void encodeBlock(byte[] block, int length, DataOutputStream dos, BitWriter writer) throws IOException {
+        encodeBlock(new ByteBlock(block, length), dos, writer);
+    }
+    
+    private void encodeBlock(SymbolBlock block, DataOutputStream dos, BitWriter writer) throws IOException {
+        CodecEvents.BlockEncode event = new CodecEvents.BlockEncode();
+        event.begin();
+        int type = encodeBlockData(block, dos, writer);
+        dos.writeInt(block.checksum());
+        metrics.addBlock(type);
+        recordBuffers();
+        if (event.shouldCommit()) {
+            event.symbols = block.length;
+            event.blockType = type;
+            event.commit();
+        }
+    }
+    
+    // Hasilnya tipe blok yang ditulis
+    private int encodeBlockData(SymbolBlock block, DataOutputStream dos, BitWriter writer) throws IOException {
+        if (codeTable != null && encodeShared(block, dos, writer)) {
+            return BLOCK_SHARED;
+        }
+        
+        // Blok LZ disiapkan lebih dulu lalu dibandingkan dengan Huffman biasa
+        ByteArrayOutputStream lz = level > 0 ? encodeLz(block) : null;
+        
         // Bangun frequency map
-        buildFrequencyMap(content);
+        int length = block.length;
+        block.buildFrequencyMap();
+        
+        // Perkiraan dari entropi: data acak atau sudah terkompresi langsung
+        // disimpan tanpa membangun pohon
+        long storedSize = block.storedSize();
+        long estimate = estimatedSize(length);
+        if (writeLzBlock(lz, estimate, storedSize, dos)) {
+            return BLOCK_LZ;
+        }
+        if (!worthEncoding(estimate, storedSize)) {
+            block.writeStoredBlock(dos);
+            return BLOCK_STORED;
+        }
         
         // Bangun pohon Huffman
         HuffmanNode root = buildHuffmanTree();
         
         // Generate kode Huffman
-        generateCodes(root, "");
+        generateCodes(root);
+        if (writeLzBlock(lz, encodedSize(), storedSize, dos)) {
+            return BLOCK_LZ;
+        }
+        if (!worthEncoding(encodedSize(), storedSize)) {
+            block.writeStoredBlock(dos);
+            return BLOCK_STORED;
+        }
         
-        // Tulis file terkompresi
-        writeCompressedFile(content, outputFileName);
+        // Tulis blok terkompresi
+        int streamCount = streamCount(length);
+        if (streamCount == 1) {
+            writeBlockHeader(length, dos);
+            block.encodeSymbols(0, length, writer);
+            return BLOCK_HUFFMAN;
+        }
+        
+        // Panjang bit setiap segmen dihitung dulu karena ditulis di header
+        int segment = (length + streamCount - 1) / streamCount;
+        long[] bitLengths = new long[streamCount];
+        long remaining = totalBits();
+        for (int s = 0; s < streamCount - 1; s++) {
+            bitLengths[s] = block.segmentBits(s * segment, (s + 1) * segment);
+            remaining -= bitLengths[s];
+        }
+        bitLengths[streamCount - 1] = remaining;
+        writeStreamsHeader(length, bitLengths, dos);
+        for (int s = 0; s < streamCount; s++) {
+            block.encodeSymbols(s * segment, Math.min(length, (s + 1) * segment), writer);
+        }
+        return BLOCK_HUFFMAN_STREAMS;
     }
     
-    public void decompress(String inputFileName, String outputFileName) throws IOException {
-        DataInputStream dis = new DataInputStream(new FileInputStream(inputFileName));
+    // Blok LZ: jumlah simbol, jumlah literal, jumlah sekuens, lalu empat stream
+    // Huffman masing-masing dengan tabel kode dan panjang bitnya (literal, kode
+    // panjang literal, kode panjang match, kode jarak), lalu bit tambahan
+    // mentah per sekuens. Payload disusun di buffer karena panjangnya ditulis
+    // di depan. Hasilnya null jika blok hampir tidak punya pengulangan.
+    private ByteArrayOutputStream encodeLz(SymbolBlock block) throws IOException {
+        LzParser parser = lzParser();
+        int length = block.length;
+        long start = System.nanoTime();
+        int sequences = block.parse(parser);
+        metrics.add(CodecMetrics.Phase.MATCH, System.nanoTime() - start);
+        if (!worthMatching(parser, length)) {
+            return null;
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(length / 2);
+        DataOutputStream out = new DataOutputStream(buffer);
+        BitWriter writer = new BitWriter(out);
+        SymbolBlock literals = block.literals(parser);
+        out.writeInt(length);
+        out.writeInt(literals.length);
+        out.writeInt(sequences);
+        literals.buildFrequencyMap();
+        writeLzTable(out);
+        literals.encodeSymbols(0, literals.length, writer);
+        writeLzSequences(parser, out, writer);
+        return buffer;
+    }
+    
+    // Blok yang hampir tanpa pengulangan tidak perlu disusun sebagai blok LZ
+    private static boolean worthMatching(LzParser parser, int length) {
+        return parser.sequenceCount() > 0 && length - parser.literalCount() >= length / STORED_MARGIN;
+    }
+    
+    private LzParser lzParser() {
+        if (lzParser == null) {
+            lzParser = new LzParser(level);
+        }
+        return lzParser;
+    }
+    
+    // Tabel kode dan panjang bit stream yang histogramnya baru dihitung
+    private void writeLzTable(DataOutputStream out) throws IOException {
+        generateCodes(buildHuffmanTree());
+        metrics.addCodeTable(codeTableSize());
+        writeCodeTable(out);
+        out.writeLong(totalBits());
+    }
+    
+    // Tiga stream kode sekuens, lalu bit tambahan berurutan per sekuens
+    private void writeLzSequences(LzParser parser, DataOutputStream out, BitWriter writer) throws IOException {
+        int sequences = parser.sequenceCount();
+        long extraBits = 0;
+        for (int stream = 0; stream < 3; stream++) {
+            byte[] codes = parser.codes(stream);
+            buildFrequencyMap(codes, sequences);
+            writeLzTable(out);
+            encodeSymbols(codes, 0, sequences, writer);
+            for (int i = 0; i < sequences; i++) {
+                extraBits += LzParser.extraBits(codes[i]);
+            }
+        }
         
-        try {
-            // Baca jumlah karakter unik
-            int uniqueChars = dis.readByte() & 0xFF;
-            
-            // Baca frequency map
-            frequencyMap.clear();
-            for (int i = 0; i < uniqueChars; i++) {
-                char character = dis.readChar();
-                int frequency = dis.readInt();
-                frequencyMap.put(character, frequency);
+        long start = System.nanoTime();
+        out.writeLong(extraBits);
+        for (int i = 0; i < sequences; i++) {
+            for (int stream = 0; stream < 3; stream++) {
+                int code = parser.codes(stream)[i];
+                int bits = LzParser.extraBits(code);
+                if (bits > 0) {
+                    writer.write(parser.values(stream)[i] - LzParser.baseValue(code), bits);
+                }
+            }
+        }
+        writer.flush();
+        metrics.add(CodecMetrics.Phase.ENCODE, System.nanoTime() - start);
+    }
+    
+    // Tulis blok LZ jika ada, tidak lebih besar dari limit (perkiraan atau
+    // ukuran Huffman biasa) dan cukup hemat dibanding blok tersimpan
+    private boolean writeLzBlock(ByteArrayOutputStream lz, long limit, long storedSize,
+                                 DataOutputStream dos) throws IOException {
+        if (lz == null || lz.size() > limit || !worthEncoding(lz.size(), storedSize)) {
+            return false;
+        }
+        dos.writeByte(BLOCK_LZ);
+        dos.writeInt(lz.size());
+        lz.writeTo(dos);
+        return true;
+    }
+    
+    // Blok tabel bersama: jumlah simbol, panjang bit, lalu data. Gagal (false)
+    // jika ada simbol di luar tabel atau hasilnya tidak lebih kecil dari
+    // blok tersimpan; blok lalu dikodekan seperti biasa.
+    private boolean encodeShared(SymbolBlock block, DataOutputStream dos, BitWriter writer) throws IOException {
+        long start = System.nanoTime();
+        long bitLength = block.sharedBitLength(codeTable);
+        if (bitLength < 0 || !worthEncoding((bitLength + 7) / 8, block.storedSize())) {
+            return false;
+        }
+        writeSharedHeader(block.length, bitLength, dos);
+        block.encodeShared(codeTable, writer);
+        metrics.add(CodecMetrics.Phase.ENCODE, System.nanoTime() - start);
+        return true;
+    }
+    
+    private void writeSharedHeader(int length, long bitLength, DataOutputStream dos) throws IOException {
+        dos.writeByte(BLOCK_SHARED);
+        dos.writeInt((int) (4 + 8 + (bitLength + 7) / 8));
+        dos.writeInt(length);
+        dos.writeLong(bitLength);
+    }
+    
+    private static boolean worthEncoding(long encodedSize, long storedSize) {
+        return encodedSize < storedSize - storedSize / STORED_MARGIN;
+    }
+    
+    // Batas bawah ukuran data Huffman menurut entropi histogram, ditambah
+    // tabel kode. Cukup akurat untuk menolak blok acak sebelum pohon dibangun.
+    private long estimatedSize(int length) {
+        double bits = 0;
+        for (int symbol : blockSymbols) {
+            int frequency = frequencies[symbol];
+            bits += frequency * Math.log((double) length / frequency);
+        }
+        return (long) (bits / Math.log(2) / 8) + codeTableSize();
+    }
+    
+    // Ukuran data dan tabel kode setelah panjang kode diketahui
+    private long encodedSize() {
+        return (totalBits() + 7) / 8 + codeTableSize();
+    }
+    
+    // Char blok tersimpan ditulis per char sebagai UTF-8 1-3 byte (surrogate
+    // juga dikodekan sendiri-sendiri)
+    private static long storedCharsSize(char[] block, int length) {
+        long size = 0;
+        for (int i = 0; i < length; i++) {
+            char c = block[i];
+            size += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+        }
+        return size;
+    }
+    
+    // Blok tersimpan: jumlah simbol, panjang data, lalu data mentah
+    private void writeStoredBlock(byte[] block, int length, DataOutputStream dos) throws IOException {
+        long start = System.nanoTime();
+        dos.writeByte(BLOCK_STORED);
+        dos.writeInt(8 + length);
+        dos.writeInt(length);
+        dos.writeInt(length);
+        dos.write(block, 0, length);
+        metrics.add(CodecMetrics.Phase.ENCODE, System.nanoTime() - start);
+    }
+    
+    private void writeStoredBlock(char[] block, int length, int dataLength, DataOutputStream dos) throws IOException {
+        long start = System.nanoTime();
+        if (compressedData.length < dataLength) {
+            compressedData = new byte[dataLength];
+        }
+        byte[] data = compressedData;
+        int p = 0;
+        for (int i = 0; i < length; i++) {
+            char c = block[i];
+            if (c < 0x80) {
+                data[p++] = (byte) c;
+            } else if (c < 0x800) {
+                data[p++] = (byte) (0xC0 | (c >> 6));
+                data[p++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                data[p++] = (byte) (0xE0 | (c >> 12));
+                data[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                data[p++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        dos.writeByte(BLOCK_STORED);
+        dos.writeInt(8 + dataLength);
+        dos.writeInt(length);
+        dos.writeInt(dataLength);
+        dos.write(data, 0, dataLength);
+        metrics.add(CodecMetrics.Phase.ENCODE, System.nanoTime() - start);
+    }
+    
+    // Jumlah stream untuk blok sepanjang length; blok kecil tetap satu stream
+    private int streamCount(int length) {
+        if (streams == 1 || length < streams * MIN_STREAM_SYMBOLS) {
+            return 1;
+        }
+        return streams;
+    }
+    
+    private long segmentBits(char[] block, int from, int to) {
+        byte[] lengths = codeLengths;
+        long bits = 0;
+        for (int i = from; i < to; i++) {
+            bits += lengths[block[i]];
+        }
+        return bits;
+    }
+    
+    private long segmentBits(byte[] block, int from, int to) {
+        byte[] lengths = codeLengths;
+        long bits = 0;
+        for (int i = from; i < to; i++) {
+            bits += lengths[block[i] & 0xFF];
+        }
+        return bits;
+    }
+    
+    // Tahap-tahap codec dibuat package-private agar bisa diukur BenchHuffman
+    
+    // Kodekan block[from..to) sebagai satu bitstream yang rata byte
+    void encodeSymbols(char[] block, int from, int to, BitWriter writer) throws IOException {
+        long start = System.nanoTime();
+        long[] bits = codeBits;
+        byte[] lengths = codeLengths;
+        for (int i = from; i < to; i++) {
+            char c = block[i];
+            writer.write(bits[c], lengths[c]);
+        }
+        writer.flush();
+        metrics.add(CodecMetrics.Phase.ENCODE, System.nanoTime() - start);
+    }
+    
+    void encodeSymbols(byte[] block, int from, int to, BitWriter writer) throws IOException {
+        long start = System.nanoTime();
+        long[] bits = codeBits;
+        byte[] lengths = codeLengths;
+        for (int i = from; i < to; i++) {
+            int b = block[i] & 0xFF;
+            writer.write(bits[b], lengths[b]);
+        }
+        writer.flush();
+        metrics.add(CodecMetrics.Phase.ENCODE, System.nanoTime() - start);
+    }
+    
+    // Decode satu frame blok utuh seperti yang ditulis encodeBlock: tipe,
+    // panjang payload, payload, lalu checksum
+    int decodeFrame(DataInputStream dis, boolean binary) throws IOException {
+        int type = readBlockType(dis);
+        dis.readInt(); // panjang payload, hanya dipakai mode paralel
+        return decodeBlock(dis, type, binary);
+    }
+    
+    // Decode satu blok (setelah tipe dan panjang payload) ke decodedBlock,
+    // atau ke decodedBytes untuk mode biner, lalu cocokkan checksum-nya
+    int decodeBlock(DataInputStream dis, int type, boolean binary) throws IOException {
+        CodecEvents.BlockDecode event = new CodecEvents.BlockDecode();
+        event.begin();
+        int symbolCount = decodeBlockData(dis, type, binary);
+        int expected = dis.readInt();
+        int actual = binary ? checksum(decodedBytes, symbolCount) : checksum(decodedBlock, symbolCount);
+        if (actual != expected) {
+            throw new IOException("Checksum blok tidak cocok, file rusak");
+        }
+        metrics.addBlock(type);
+        recordBuffers();
+        if (event.shouldCommit()) {
+            event.symbols = symbolCount;
+            event.blockType = type;
+            event.commit();
+        }
+        return symbolCount;
+    }
+    
+    private int decodeBlockData(DataInputStream dis, int type, boolean binary) throws IOException {
+        if (type == BLOCK_STORED) {
+            return readStoredBlock(dis, binary);
+        }
+        if (type == BLOCK_LZ) {
+            return readLzBlock(dis, binary);
+        }
+        
+        // Blok tabel bersama memakai decoder yang sudah dibangun sebelumnya
+        int symbolCount = dis.readInt();
+        if (symbolCount <= 0) {
+            throw new IOException("Header blok rusak");
+        }
+        HuffmanDecoder decoder;
+        if (type == BLOCK_SHARED) {
+            if (sharedTable == null) {
+                throw new IOException("Blok memakai tabel kode bersama yang tidak ada di header");
+            }
+            decoder = sharedTable.decoder();
+        } else {
+            long tableStart = System.nanoTime();
+            decoder = readCodeTable(dis, binary);
+            metrics.add(CodecMetrics.Phase.DECODE_TABLE, System.nanoTime() - tableStart);
+            metrics.recordDecoderTable(decoder.tableSize());
+        }
+        long start = System.nanoTime();
+        
+        // Baca panjang bit setiap stream, lalu data terkompresi sekaligus
+        int streamCount = type == BLOCK_HUFFMAN_STREAMS ? dis.readUnsignedByte() : 1;
+        if (streamCount == 0) {
+            throw new IOException("Header blok rusak");
+        }
+        int[] streamOffsets = new int[streamCount];
+        int[] streamLengths = new int[streamCount];
+        long dataLength = 0;
+        for (int s = 0; s < streamCount; s++) {
+            long bitLength = dis.readLong();
+            long streamLength = (bitLength + 7) / 8;
+            if (bitLength < 0 || dataLength + streamLength > Integer.MAX_VALUE) {
+                throw new IOException("Header blok rusak");
+            }
+            streamOffsets[s] = (int) dataLength;
+            streamLengths[s] = (int) streamLength;
+            dataLength += streamLength;
+        }
+        if (compressedData.length < dataLength) {
+            compressedData = new byte[(int) dataLength];
+        }
+        dis.readFully(compressedData, 0, (int) dataLength);
+        
+        // Decode langsung dari byte
+        if (binary) {
+            if (decodedBytes.length < symbolCount) {
+                decodedBytes = new byte[symbolCount];
+            }
+            if (streamCount == 1) {
+                decoder.decode(compressedData, 0, (int) dataLength, decodedBytes, 0, symbolCount);
+            } else {
+                decoder.decodeStreams(compressedData, streamOffsets, streamLengths, decodedBytes, symbolCount, streamCount);
+            }
+        } else {
+            if (decodedBlock.length < symbolCount) {
+                decodedBlock = new char[symbolCount];
+            }
+            if (streamCount == 1) {
+                decoder.decode(compressedData, 0, (int) dataLength, decodedBlock, 0, symbolCount);
+            } else {
+                decoder.decodeStreams(compressedData, streamOffsets, streamLengths, decodedBlock, symbolCount, streamCount);
+            }
+        }
+        metrics.add(CodecMetrics.Phase.DECODE, System.nanoTime() - start);
+        return symbolCount;
+    }
+    
+    // Baca panjang kode tiap simbol dari header blok
+    private HuffmanDecoder readCodeTable(DataInputStream dis, boolean binary) throws IOException {
+        int uniqueSymbols = dis.readUnsignedShort() + 1;
+        int alphabetSize = binary ? BYTE_ALPHABET_SIZE : ALPHABET_SIZE;
+        if (uniqueSymbols > alphabetSize) {
+            throw new IOException("Header blok rusak");
+        }
+        int[] symbols = new int[uniqueSymbols];
+        int[] lengths = new int[uniqueSymbols];
+        int symbol = -1;
+        for (int i = 0; i < uniqueSymbols; i++) {
+            symbol += readVarInt(dis) + 1;
+            if (symbol >= alphabetSize) {
+                throw new IOException("Header blok rusak");
+            }
+            symbols[i] = symbol;
+            lengths[i] = dis.readUnsignedByte();
+        }
+        
+        // Tabel decoder dibangun langsung dari kode kanonik, tanpa pohon
+        long[] codes = new long[uniqueSymbols];
+        assignCanonicalCodes(symbols, lengths, uniqueSymbols, codes);
+        return new HuffmanDecoder(symbols, codes, lengths, uniqueSymbols);
+    }
+    
+    // Literal di-decode ke ujung buffer output, lalu sekuens disusun dari depan.
+    // Posisi tulis tidak pernah melewati posisi baca literal (selisihnya adalah
+    // total panjang match yang belum disalin), jadi tidak perlu buffer lain.
+    private int readLzBlock(DataInputStream dis, boolean binary) throws IOException {
+        int symbolCount = dis.readInt();
+        int literalCount = dis.readInt();
+        int sequenceCount = dis.readInt();
+        if (symbolCount <= 0 || literalCount <= 0 || literalCount > symbolCount
+                || sequenceCount <= 0 || sequenceCount > symbolCount) {
+            throw new IOException("Header blok rusak");
+        }
+        int literalStart = symbolCount - literalCount;
+        Object output;
+        HuffmanDecoder decoder = readLzTable(dis, binary);
+        int dataLength = readLzData(dis);
+        long start = System.nanoTime();
+        if (binary) {
+            if (decodedBytes.length < symbolCount) {
+                decodedBytes = new byte[symbolCount];
+            }
+            decoder.decode(compressedData, 0, dataLength, decodedBytes, literalStart, literalCount);
+            output = decodedBytes;
+        } else {
+            if (decodedBlock.length < symbolCount) {
+                decodedBlock = new char[symbolCount];
+            }
+            decoder.decode(compressedData, 0, dataLength, decodedBlock, literalStart, literalCount);
+            output = decodedBlock;
+        }
+        metrics.add(CodecMetrics.Phase.DECODE, System.nanoTime() - start);
+        
+        if (lzCodes.length < 3 * sequenceCount) {
+            lzCodes = new byte[3 * sequenceCount];
+        }
+        for (int stream = 0; stream < 3; stream++) {
+            decoder = readLzTable(dis, true);
+            dataLength = readLzData(dis);
+            start = System.nanoTime();
+            decoder.decode(compressedData, 0, dataLength, lzCodes, stream * sequenceCount, sequenceCount);
+            metrics.add(CodecMetrics.Phase.DECODE, System.nanoTime() - start);
+        }
+        dataLength = readLzData(dis);
+        
+        start = System.nanoTime();
+        BitReader extra = new BitReader(compressedData, 0, dataLength);
+        byte[] codes = lzCodes;
+        int pos = 0;
+        int literal = literalStart;
+        for (int i = 0; i < sequenceCount; i++) {
+            int literalLength = readLzValue(codes[i], extra);
+            int matchLength = readLzValue(codes[sequenceCount + i], extra);
+            int distance = readLzValue(codes[2 * sequenceCount + i], extra);
+            if (literalLength > symbolCount - literal) {
+                throw new IOException("Blok LZ rusak");
+            }
+            System.arraycopy(output, literal, output, pos, literalLength);
+            pos += literalLength;
+            literal += literalLength;
+            if (matchLength > literal - pos - LzParser.MIN_MATCH || distance >= pos) {
+                throw new IOException("Blok LZ rusak");
             }
             
-            // Bangun pohon Huffman
-            HuffmanNode root = buildHuffmanTree();
-            
-            // Baca panjang bitstream
-            int bitLength = dis.readInt();
-            
-            // Baca data terkompresi
-            int dataLength = dis.readInt();
-            byte[] compressedData = new byte[dataLength];
-            dis.readFully(compressedData);
-            
-            // Konversi ke bit string dan decode
-            String bitString = convertBytesToBitString(compressedData, bitLength);
-            String decodedContent = decodeData(bitString, root);
-            
-            // Tulis file hasil dekompresi
-            writeTextFile(outputFileName, decodedContent);
-            
-        } finally {
-            dis.close();
+            // Match yang tumpang tindih disalin bertahap; sumbernya tetap di
+            // awal match sehingga salinan berlipat dua setiap langkah
+            int from = pos - distance - 1;
+            int remaining = matchLength + LzParser.MIN_MATCH;
+            while (remaining > 0) {
+                int n = Math.min(pos - from, remaining);
+                System.arraycopy(output, from, output, pos, n);
+                pos += n;
+                remaining -= n;
+            }
+        }
+        // Literal sisa sudah berada di posisi akhirnya
+        if (pos != literal) {
+            throw new IOException("Blok LZ rusak");
+        }
+        metrics.add(CodecMetrics.Phase.DECODE, System.nanoTime() - start);
+        return symbolCount;
+    }
+    
+    private HuffmanDecoder readLzTable(DataInputStream dis, boolean binary) throws IOException {
+        long start = System.nanoTime();
+        HuffmanDecoder decoder = readCodeTable(dis, binary);
+        metrics.add(CodecMetrics.Phase.DECODE_TABLE, System.nanoTime() - start);
+        metrics.recordDecoderTable(decoder.tableSize());
+        return decoder;
+    }
+    
+    // Baca satu stream (panjang bit lalu data) ke compressedData
+    private int readLzData(DataInputStream dis) throws IOException {
+        long bitLength = dis.readLong();
+        if (bitLength < 0 || bitLength > 8L * Integer.MAX_VALUE) {
+            throw new IOException("Header blok rusak");
+        }
+        int dataLength = (int) ((bitLength + 7) / 8);
+        if (compressedData.length < dataLength) {
+            compressedData = new byte[dataLength];
         }
+        dis.readFully(compressedData, 0, dataLength);
+        return dataLength;
     }
     
-    private void buildFrequencyMap(String content) {
-        frequencyMap.clear();
-        for (char c : content.toCharArray()) {
-            frequencyMap.put(c, frequencyMap.getOrDefault(c, 0) + 1);
+    private static int readLzValue(byte code, BitReader extra) throws IOException {
+        if (code < 0 || code >= LzParser.CODE_COUNT) {
+            throw new IOException("Blok LZ rusak");
         }
+        int bits = LzParser.extraBits(code);
+        return bits == 0 ? code : LzParser.baseValue(code) + extra.read(bits);
+    }
+    
+    private int readStoredBlock(DataInputStream dis, boolean binary) throws IOException {
+        long start = System.nanoTime();
+        int symbolCount = dis.readInt();
+        int dataLength = dis.readInt();
+        if (symbolCount <= 0 || dataLength < symbolCount || (binary && dataLength != symbolCount)) {
+            throw new IOException("Header blok rusak");
+        }
+        if (binary) {
+            if (decodedBytes.length < symbolCount) {
+                decodedBytes = new byte[symbolCount];
+            }
+            dis.readFully(decodedBytes, 0, symbolCount);
+            metrics.add(CodecMetrics.Phase.DECODE, System.nanoTime() - start);
+            return symbolCount;
+        }
+        
+        if (compressedData.length < dataLength) {
+            compressedData = new byte[dataLength];
+        }
+        if (decodedBlock.length < symbolCount) {
+            decodedBlock = new char[symbolCount];
+        }
+        byte[] data = compressedData;
+        char[] chars = decodedBlock;
+        dis.readFully(data, 0, dataLength);
+        int p = 0;
+        for (int i = 0; i < symbolCount; i++) {
+            if (p >= dataLength) {
+                throw new IOException("Blok tersimpan terpotong");
+            }
+            int b = data[p++] & 0xFF;
+            if (b < 0x80) {
+                chars[i] = (char) b;
+            } else if ((b & 0xE0) == 0xC0 && p < dataLength) {
+                chars[i] = (char) (((b & 0x1F) << 6) | (data[p++] & 0x3F));
+            } else if ((b & 0xF0) == 0xE0 && p + 1 < dataLength) {
+                chars[i] = (char) (((b & 0x0F) << 12) | ((data[p] & 0x3F) << 6) | (data[p + 1] & 0x3F));
+                p += 2;
+            } else {
+                throw new IOException("Blok tersimpan rusak");
+            }
+        }
+        if (p != dataLength) {
+            throw new IOException("Blok tersimpan rusak");
+        }
+        metrics.add(CodecMetrics.Phase.DECODE, System.nanoTime() - start);
+        return symbolCount;
+    }
+    
+    private int checksum(byte[] block, int length) {
+        long start = System.nanoTime();
+        CRC32C crc = checksum;
+        crc.reset();
+        crc.update(block, 0, length);
+        metrics.add(CodecMetrics.Phase.CHECKSUM, System.nanoTime() - start);
+        return (int) crc.getValue();
+    }
+    
+    // Char disalin per potongan ke buffer byte (UTF-16BE) yang dipakai ulang
+    private int checksum(char[] block, int length) {
+        long start = System.nanoTime();
+        if (checksumBuffer.capacity() == 0) {
+            checksumBuffer = ByteBuffer.allocate(64 * 1024);
+        }
+        ByteBuffer buffer = checksumBuffer;
+        int chunk = buffer.capacity() / 2;
+        CRC32C crc = checksum;
+        crc.reset();
+        for (int from = 0; from < length; from += chunk) {
+            int n = Math.min(chunk, length - from);
+            buffer.clear();
+            buffer.asCharBuffer().put(block, from, n);
+            buffer.limit(2 * n);
+            crc.update(buffer);
+        }
+        metrics.add(CodecMetrics.Phase.CHECKSUM, System.nanoTime() - start);
+        return (int) crc.getValue();
+    }
+    
+    // Buffer dekompresi dan blok tersimpan yang dipegang instance ini
+    private void recordBuffers() {
+        metrics.recordBuffers(compressedData.length + 2L * decodedBlock.length + decodedBytes.length + lzCodes.length
+                + checksumBuffer.capacity());
+    }
+    
+    // Isi blok sampai penuh atau akhir stream
+    private int readBlock(Reader reader, char[] block) throws IOException {
+        long start = System.nanoTime();
+        int length = 0;
+        while (length < block.length) {
+            int n = reader.read(block, length, block.length - length);
+            if (n < 0) break;
+            length += n;
+        }
+        metrics.add(CodecMetrics.Phase.IO, System.nanoTime() - start);
+        return length;
+    }
+    
+    private int readBlock(InputStream in, byte[] block) throws IOException {
+        long start = System.nanoTime();
+        int length = 0;
+        while (length < block.length) {
+            int n = in.read(block, length, block.length - length);
+            if (n < 0) break;
+            length += n;
+        }
+        metrics.add(CodecMetrics.Phase.IO, System.nanoTime() - start);
+        return length;
+    }
+    
+    // Histogram primitif; hanya entri blok sebelumnya yang perlu dinolkan.
+    // Blok besar dihitung paralel jika mode paralel aktif.
+    void buildFrequencyMap(char[] block, int length) {
+        long start = System.nanoTime();
+        clearFrequencies();
+        Histogram.count(block, length, frequencies, threads > 1);
+        collectSymbols(ALPHABET_SIZE);
+        metrics.add(CodecMetrics.Phase.HISTOGRAM, System.nanoTime() - start);
     }
     
-    private HuffmanNode buildHuffmanTree() {
+    void buildFrequencyMap(byte[] block, int length) {
+        long start = System.nanoTime();
+        clearFrequencies();
+        Histogram.count(block, length, frequencies, threads > 1);
+        collectSymbols(BYTE_ALPHABET_SIZE);
+        metrics.add(CodecMetrics.Phase.HISTOGRAM, System.nanoTime() - start);
+    }
+    
+    private void clearFrequencies() {
+        for (int symbol : blockSymbols) {
+            frequencies[symbol] = 0;
+        }
+    }
+    
+    // Simbol yang muncul di blok, otomatis terurut naik
+    private void collectSymbols(int alphabetSize) {
+        int[] counts = frequencies;
+        int count = 0;
+        for (int c = 0; c < alphabetSize; c++) {
+            if (counts[c] != 0) count++;
+        }
+        int[] symbols = new int[count];
+        int i = 0;
+        for (int c = 0; c < alphabetSize; c++) {
+            if (counts[c] != 0) symbols[i++] = c;
+        }
+        blockSymbols = symbols;
+        blockLengths = new int[count];
+    }
+    
+    // Bangun tabel kode bersama dari histogram contoh data yang sudah jadi
+    CodeTable trainCodeTable(int id, boolean binary, int[] counts) throws IOException {
+        clearFrequencies();
+        System.arraycopy(counts, 0, frequencies, 0, counts.length);
+        collectSymbols(counts.length);
+        generateCodes(buildHuffmanTree());
+        return new CodeTable(id, binary, blockSymbols, blockLengths);
+    }
+    
+    HuffmanNode buildHuffmanTree() {
+        long start = System.nanoTime();
         PriorityQueue<HuffmanNode> queue = new PriorityQueue<>();
         
-        // Buat node untuk setiap karakter
-        for (Map.Entry<Character, Integer> entry : frequencyMap.entrySet()) {
-            queue.add(new HuffmanNode(entry.getKey(), entry.getValue()));
+        // Buat node untuk setiap simbol
+        for (int symbol : blockSymbols) {
+            queue.add(new HuffmanNode((char) symbol, frequencies[symbol]));
         }
         
         // Bangun pohon Huffman
@@ -115,107 +1669,186 @@ public class AlgoHuffman {
             queue.add(parent);
         }
         
+        metrics.add(CodecMetrics.Phase.TREE, System.nanoTime() - start);
         return queue.poll();
     }
     
-    private void generateCodes(HuffmanNode node, String code) {
+    // Panjang kode diambil dari pohon, bit kodenya ditentukan secara kanonik
+    void generateCodes(HuffmanNode root) throws IOException {
+        long start = System.nanoTime();
+        assignLengths(root, 0);
+        
+        int[] symbols = blockSymbols;
+        int[] lengths = blockLengths;
+        int count = symbols.length;
+        int longest = 0;
+        for (int i = 0; i < count; i++) {
+            lengths[i] = codeLengths[symbols[i]];
+            longest = Math.max(longest, lengths[i]);
+        }
+        
+        // Pohon melampaui batas: hitung ulang panjang optimal dengan package-merge
+        if (maxCodeLength > 0 && longest > maxCodeLength) {
+            int limit = maxCodeLength;
+            while ((1L << limit) < count) {
+                limit++;
+            }
+            int[] weights = new int[count];
+            for (int i = 0; i < count; i++) {
+                weights[i] = frequencies[symbols[i]];
+            }
+            PackageMerge.computeLengths(weights, count, limit, lengths);
+            for (int i = 0; i < count; i++) {
+                codeLengths[symbols[i]] = (byte) lengths[i];
+            }
+        }
+        
+        long[] codes = new long[count];
+        assignCanonicalCodes(symbols, lengths, count, codes);
+        for (int i = 0; i < count; i++) {
+            codeBits[symbols[i]] = codes[i];
+        }
+        metrics.add(CodecMetrics.Phase.CODES, System.nanoTime() - start);
+    }
+    
+    private void assignLengths(HuffmanNode node, int length) throws IOException {
         if (node == null) return;
         
         if (node.isLeaf()) {
-            huffmanCodes.put(node.character, code);
+            codeLengths[node.character] = (byte) length;
             return;
         }
         
-        generateCodes(node.left, code + "0");
-        generateCodes(node.right, code + "1");
+        if (length >= 64) {
+            throw new IOException("Pohon Huffman terlalu dalam");
+        }
+        assignLengths(node.left, length + 1);
+        assignLengths(node.right, length + 1);
     }
     
-    private void writeCompressedFile(String content, String outputFileName) throws IOException {
-        DataOutputStream dos = new DataOutputStream(new FileOutputStream(outputFileName));
-        
-        try {
-            // Tulis jumlah karakter unik
-            dos.writeByte(frequencyMap.size());
-            
-            // Tulis frequency map
-            for (Map.Entry<Character, Integer> entry : frequencyMap.entrySet()) {
-                dos.writeChar(entry.getKey());
-                dos.writeInt(entry.getValue());
+    // Kode kanonik: simbol diurutkan menurut (panjang, nilai simbol), kode
+    // berurutan dalam satu panjang. Simbol harus sudah terurut naik.
+    static void assignCanonicalCodes(int[] symbols, int[] lengths, int count, long[] codes) throws IOException {
+        if (count == 1) {
+            codes[0] = 0;
+            return;
+        }
+        int[] lengthCount = new int[65];
+        for (int i = 0; i < count; i++) {
+            if (lengths[i] <= 0 || lengths[i] > 64) {
+                throw new IOException("Tabel kode rusak");
             }
-            
-            // Encode konten sebagai bitstream
-            StringBuilder bitString = new StringBuilder();
-            for (char c : content.toCharArray()) {
-                bitString.append(huffmanCodes.get(c));
+            lengthCount[lengths[i]]++;
+        }
+        
+        long[] nextCode = new long[65];
+        long code = 0;
+        for (int len = 1; len <= 64; len++) {
+            code = (code + lengthCount[len - 1]) << 1;
+            nextCode[len] = code;
+            // Kode tidak boleh melebihi ruang 2^len (ketidaksamaan Kraft)
+            if (len < 64 && lengthCount[len] > 0 && code + lengthCount[len] > (1L << len)) {
+                throw new IOException("Tabel kode rusak");
             }
-            
-            int bitLength = bitString.length();
-            dos.writeInt(bitLength);
-            
-            // Konversi ke byte array dan tulis
-            byte[] compressedData = convertBitStringToBytes(bitString.toString());
-            dos.writeInt(compressedData.length);
-            dos.write(compressedData);
-            
-        } finally {
-            dos.close();
+        }
+        for (int i = 0; i < count; i++) {
+            codes[i] = nextCode[lengths[i]]++;
         }
     }
     
-    private byte[] convertBitStringToBytes(String bitString) {
-        int byteCount = (bitString.length() + 7) / 8;
-        byte[] bytes = new byte[byteCount];
+    void writeBlockHeader(int length, DataOutputStream dos) throws IOException {
+        // Panjang bitstream dan ukuran header dihitung sebelum encode
+        long bitLength = totalBits();
+        long dataLength = (bitLength + 7) / 8;
         
-        for (int i = 0; i < bitString.length(); i++) {
-            if (bitString.charAt(i) == '1') {
-                int byteIndex = i / 8;
-                int bitIndex = 7 - (i % 8);
-                bytes[byteIndex] |= (1 << bitIndex);
-            }
+        dos.writeByte(BLOCK_HUFFMAN);
+        int tableSize = codeTableSize();
+        metrics.addCodeTable(tableSize);
+        dos.writeInt((int) (4 + tableSize + 8 + dataLength));
+        dos.writeInt(length);
+        writeCodeTable(dos);
+        dos.writeLong(bitLength);
+    }
+    
+    // Header blok multi-stream: tabel kode yang sama, jumlah stream, lalu
+    // panjang bit setiap stream. Data setiap stream dimulai di batas byte.
+    private void writeStreamsHeader(int length, long[] bitLengths, DataOutputStream dos) throws IOException {
+        long dataLength = 0;
+        for (long bits : bitLengths) {
+            dataLength += (bits + 7) / 8;
         }
         
-        return bytes;
+        dos.writeByte(BLOCK_HUFFMAN_STREAMS);
+        int tableSize = codeTableSize();
+        metrics.addCodeTable(tableSize);
+        dos.writeInt((int) (4 + tableSize + 1 + 8L * bitLengths.length + dataLength));
+        dos.writeInt(length);
+        writeCodeTable(dos);
+        dos.writeByte(bitLengths.length);
+        for (long bits : bitLengths) {
+            dos.writeLong(bits);
+        }
     }
     
-    private String convertBytesToBitString(byte[] bytes, int bitLength) {
-        StringBuilder bitString = new StringBuilder();
-        
-        for (int i = 0; i < bitLength; i++) {
-            int byteIndex = i / 8;
-            int bitIndex = 7 - (i % 8);
-            boolean isSet = (bytes[byteIndex] & (1 << bitIndex)) != 0;
-            bitString.append(isSet ? '1' : '0');
+    private long totalBits() {
+        long bitLength = 0;
+        for (int i = 0; i < blockSymbols.length; i++) {
+            bitLength += (long) frequencies[blockSymbols[i]] * blockLengths[i];
         }
-        
-        return bitString.toString();
+        return bitLength;
     }
     
-    private String decodeData(String encodedData, HuffmanNode root) {
-        StringBuilder decodedData = new StringBuilder();
-        HuffmanNode current = root;
-        
-        for (char bit : encodedData.toCharArray()) {
-            if (bit == '0') {
-                current = current.left;
-            } else {
-                current = current.right;
-            }
-            
-            if (current.isLeaf()) {
-                decodedData.append(current.character);
-                current = root;
+    private int codeTableSize() {
+        int size = 2;
+        int previous = -1;
+        for (int c : blockSymbols) {
+            size += varIntSize(c - previous - 1) + 1;
+            previous = c;
+        }
+        return size;
+    }
+    
+    // Tulis panjang kode kanonik: selisih simbol dari simbol sebelumnya
+    // (varint) lalu panjang kode (1 byte)
+    private void writeCodeTable(DataOutputStream dos) throws IOException {
+        int[] symbols = blockSymbols;
+        int count = symbols.length;
+        dos.writeShort(count - 1);
+        int previous = -1;
+        for (int i = 0; i < count; i++) {
+            int c = symbols[i];
+            writeVarInt(dos, c - previous - 1);
+            dos.writeByte(blockLengths[i]);
+            previous = c;
+        }
+    }
+    
+    static void writeVarInt(DataOutputStream dos, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            dos.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        dos.writeByte(value);
+    }
+    
+    static int readVarInt(DataInputStream dis) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = dis.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
             }
         }
-        
-        return decodedData.toString();
+        throw new IOException("Varint rusak");
     }
     
-    private void writeTextFile(String fileName, String content) throws IOException {
-        BufferedWriter writer = new BufferedWriter(new FileWriter(fileName));
-        try {
-            writer.write(content);
-        } finally {
-            writer.close();
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
         }
+        return size;
     }
 }
\ No newline at end of file
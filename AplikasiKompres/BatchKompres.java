@@ -0,0 +1,360 @@
+// BatchKompres.java
+import java.io.*;
+import java.lang.reflect.Method;
+import java.nio.file.*;
+import java.text.DecimalFormat;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+
+// Kompresi/dekompresi semua file dalam satu pohon direktori secara bersamaan.
+// Setiap file ditangani task I/O sendiri (virtual thread jika tersedia, selain
+// itu pool thread biasa), sedangkan encode/decode blok berjalan di satu pool
+// CPU bersama berukuran tetap lewat AlgoHuffman.setExecutor. Codec per file
+// dan codec worker pool dipakai ulang antar file dalam satu batch.
+//
+// Kompresi memakai mode biner secara default agar file apa pun kembali persis
+// sama byte per byte; --text memakai mode teks (hanya untuk file UTF-8).
+//
+// Penggunaan: java BatchKompres compress|decompress|verify <direktori> [--out dir]
+//             [--threads N] [--files N] [--suffix .txt] [--text] [--level N]
+public class BatchKompres {
+    private static final DecimalFormat df = new DecimalFormat("#,##0.##");
+    private static final String HUFF_SUFFIX = ".huff";
+
+    private enum Operation {
+        COMPRESS, DECOMPRESS, VERIFY
+    }
+
+    // Hasil satu file; error != null jika file gagal diproses. Pada verifikasi
+    // target null dan outputBytes adalah jumlah simbol hasil decode.
+    public static class FileResult {
+        public final Path source;
+        public final Path target;
+        public final long inputBytes;
+        public final long outputBytes;
+        public final long nanos;
+        public final String error;
+
+        FileResult(Path source, Path target, long inputBytes, long outputBytes, long nanos, String error) {
+            this.source = source;
+            this.target = target;
+            this.inputBytes = inputBytes;
+            this.outputBytes = outputBytes;
+            this.nanos = nanos;
+            this.error = error;
+        }
+
+        // Ukuran hasil terhadap ukuran asli dalam persen, seperti FileKompres
+        public double ratio() {
+            return inputBytes == 0 ? 100 : (double) outputBytes / inputBytes * 100;
+        }
+    }
+
+    public static class BatchResult {
+        public final List<FileResult> files;
+        public final long nanos;
+
+        BatchResult(List<FileResult> files, long nanos) {
+            this.files = files;
+            this.nanos = nanos;
+        }
+
+        public long inputBytes() {
+            long total = 0;
+            for (FileResult file : files) {
+                total += file.inputBytes;
+            }
+            return total;
+        }
+
+        public long outputBytes() {
+            long total = 0;
+            for (FileResult file : files) {
+                total += file.outputBytes;
+            }
+            return total;
+        }
+
+        public int failures() {
+            int count = 0;
+            for (FileResult file : files) {
+                if (file.error != null) count++;
+            }
+            return count;
+        }
+
+        // Throughput agregat terhadap data input, MB/s
+        public double throughput() {
+            return nanos == 0 ? 0 : inputBytes() / (1024.0 * 1024.0) / (nanos / 1e9);
+        }
+    }
+
+    private final int cpuThreads;
+    private int maxOpenFiles;
+    private boolean binaryMode;
+    private int level;
+    private String suffix;
+
+    public BatchKompres(int cpuThreads) {
+        if (cpuThreads <= 0) {
+            throw new IllegalArgumentException("Jumlah thread harus positif: " + cpuThreads);
+        }
+        this.cpuThreads = cpuThreads;
+        this.maxOpenFiles = cpuThreads * 4;
+        this.binaryMode = true;
+    }
+
+    // Batas file yang diproses bersamaan; membatasi memori buffer blok
+    public void setMaxOpenFiles(int maxOpenFiles) {
+        if (maxOpenFiles <= 0) {
+            throw new IllegalArgumentException("Jumlah file harus positif: " + maxOpenFiles);
+        }
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    // false = mode teks; file yang bukan UTF-8 tidak akan kembali persis sama
+    public void setBinaryMode(boolean binaryMode) {
+        this.binaryMode = binaryMode;
+    }
+
+    // Level tahap LZ, lihat AlgoHuffman.setLevel
+    public void setLevel(int level) {
+        if (level < 0 || level > LzParser.MAX_LEVEL) {
+            throw new IllegalArgumentException("Level harus 0.." + LzParser.MAX_LEVEL + ": " + level);
+        }
+        this.level = level;
+    }
+
+    // Hanya kompres file yang namanya berakhiran suffix; null = semua file
+    public void setSuffix(String suffix) {
+        this.suffix = suffix;
+    }
+
+    // Kompres setiap file di bawah source ke target (struktur direktori
+    // dipertahankan) sebagai <nama>.huff. target null = di samping file asli.
+    // File .huff yang sudah ada tidak ditimpa dan dilaporkan gagal.
+    public BatchResult compressTree(Path source, Path target) throws IOException {
+        List<Path> files = listFiles(source, path -> {
+            String name = path.getFileName().toString();
+            return !name.endsWith(HUFF_SUFFIX) && (suffix == null || name.endsWith(suffix));
+        });
+        return run(source, target, files, Operation.COMPRESS);
+    }
+
+    // Dekompres setiap file .huff di bawah source; nama hasil adalah nama
+    // tanpa .huff. File yang sudah ada tidak ditimpa.
+    public BatchResult decompressTree(Path source, Path target) throws IOException {
+        List<Path> files = listFiles(source, path -> path.getFileName().toString().endsWith(HUFF_SUFFIX));
+        return run(source, target, files, Operation.DECOMPRESS);
+    }
+
+    // Periksa checksum setiap file .huff di bawah source tanpa menulis hasil
+    public BatchResult verifyTree(Path source) throws IOException {
+        List<Path> files = listFiles(source, path -> path.getFileName().toString().endsWith(HUFF_SUFFIX));
+        return run(source, null, files, Operation.VERIFY);
+    }
+
+    private static List<Path> listFiles(Path root, java.util.function.Predicate<Path> filter) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new IOException("'" + root + "' bukan direktori");
+        }
+        Stream<Path> stream = Files.walk(root);
+        try {
+            return stream.filter(Files::isRegularFile).filter(filter).sorted().collect(Collectors.toList());
+        } finally {
+            stream.close();
+        }
+    }
+
+    private BatchResult run(Path source, Path target, List<Path> files, Operation operation) throws IOException {
+        ExecutorService cpuPool = new ForkJoinPool(cpuThreads);
+        ThreadLocal<AlgoHuffman> workers = AlgoHuffman.newWorkers();
+        Queue<AlgoHuffman> codecs = new ConcurrentLinkedQueue<>();
+        ExecutorService ioPool = newIoExecutor(maxOpenFiles);
+        Semaphore open = new Semaphore(maxOpenFiles);
+        FileResult[] results = new FileResult[files.size()];
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> tasks = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                int index = i;
+                Path file = files.get(i);
+                Path output = operation == Operation.VERIFY ? null
+                        : outputPath(source, target, file, operation == Operation.COMPRESS);
+                open.acquire();
+                tasks.add(ioPool.submit(() -> {
+                    // Paling banyak maxOpenFiles codec; yang selesai dipakai file berikutnya
+                    AlgoHuffman codec = codecs.poll();
+                    if (codec == null) {
+                        codec = newCodec(cpuPool, workers);
+                    }
+                    try {
+                        results[index] = processFile(file, output, operation, codec);
+                    } finally {
+                        codecs.add(codec);
+                        open.release();
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Batch dibatalkan");
+        } catch (ExecutionException e) {
+            throw new IOException("Batch gagal: " + e.getCause(), e.getCause());
+        } finally {
+            ioPool.shutdownNow();
+            cpuPool.shutdownNow();
+        }
+        return new BatchResult(Arrays.asList(results), System.nanoTime() - start);
+    }
+
+    private AlgoHuffman newCodec(ExecutorService cpuPool, ThreadLocal<AlgoHuffman> workers) {
+        AlgoHuffman codec = new AlgoHuffman();
+        codec.setThreads(cpuThreads);
+        codec.setExecutor(cpuPool, workers);
+        codec.setBinaryMode(binaryMode);
+        codec.setLevel(level);
+        return codec;
+    }
+
+    private FileResult processFile(Path file, Path output, Operation operation, AlgoHuffman codec) {
+        long start = System.nanoTime();
+        long inputBytes = 0;
+        try {
+            inputBytes = Files.size(file);
+            if (operation == Operation.VERIFY) {
+                long symbols = codec.verify(file.toString());
+                return new FileResult(file, null, inputBytes, symbols, System.nanoTime() - start, null);
+            }
+            if (Files.exists(output)) {
+                throw new IOException("File tujuan sudah ada");
+            }
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+            if (operation == Operation.COMPRESS) {
+                codec.compressFile(file.toString(), output.toString());
+            } else {
+                codec.decompress(file.toString(), output.toString());
+            }
+            return new FileResult(file, output, inputBytes, Files.size(output), System.nanoTime() - start, null);
+        } catch (IOException | RuntimeException e) {
+            // error tidak boleh null: null berarti file berhasil
+            String error = e.getMessage() != null ? e.getMessage() : e.toString();
+            return new FileResult(file, output, inputBytes, 0, System.nanoTime() - start, error);
+        }
+    }
+
+    private static Path outputPath(Path source, Path target, Path file, boolean compress) {
+        Path base = target == null ? file : target.resolve(source.relativize(file));
+        String name = base.getFileName().toString();
+        name = compress ? name + HUFF_SUFFIX : name.substring(0, name.length() - HUFF_SUFFIX.length());
+        return base.resolveSibling(name);
+    }
+
+    // Virtual thread (Java 21+) untuk overlap I/O banyak file; pada JDK lama
+    // diganti pool thread tetap seukuran batas file terbuka
+    private static ExecutorService newIoExecutor(int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(fallbackThreads);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2 || !(args[0].equals("compress") || args[0].equals("decompress") || args[0].equals("verify"))) {
+            printUsage();
+            return;
+        }
+        String command = args[0];
+        Path source = Paths.get(args[1]);
+        Path target = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int openFiles = 0;
+        boolean binary = true;
+        int level = 0;
+        String suffix = null;
+        try {
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].equals("--out") && i + 1 < args.length) {
+                    target = Paths.get(args[++i]);
+                } else if ((args[i].equals("--threads") || args[i].equals("-t")) && i + 1 < args.length) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--files") && i + 1 < args.length) {
+                    openFiles = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--suffix") && i + 1 < args.length) {
+                    suffix = args[++i];
+                } else if (args[i].equals("--binary") || args[i].equals("-b")) {
+                    binary = true;
+                } else if (args[i].equals("--text")) {
+                    binary = false;
+                } else if ((args[i].equals("--level") || args[i].equals("-l")) && i + 1 < args.length) {
+                    level = Integer.parseInt(args[++i]);
+                } else {
+                    System.out.println("Opsi tidak dikenal: " + args[i]);
+                    printUsage();
+                    return;
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Angka tidak valid: " + e.getMessage());
+            return;
+        }
+
+        try {
+            BatchKompres batch = new BatchKompres(threads);
+            if (openFiles > 0) {
+                batch.setMaxOpenFiles(openFiles);
+            }
+            batch.setBinaryMode(binary);
+            batch.setLevel(level);
+            batch.setSuffix(suffix);
+            BatchResult result;
+            if (command.equals("compress")) {
+                result = batch.compressTree(source, target);
+            } else if (command.equals("decompress")) {
+                result = batch.decompressTree(source, target);
+            } else {
+                result = batch.verifyTree(source);
+            }
+            printReport(result);
+            // Kode keluar bukan nol agar sweep integritas terjadwal bisa mendeteksinya
+            if (command.equals("verify") && result.failures() > 0) {
+                System.exit(1);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Penggunaan: java BatchKompres compress|decompress|verify <direktori> [--out dir]");
+        System.out.println("            [--threads N] [--files N] [--suffix .txt] [--text] [--level N]");
+    }
+
+    static void printReport(BatchResult result) {
+        for (FileResult file : result.files) {
+            if (file.error != null) {
+                System.out.println("GAGAL  " + file.source + ": " + file.error);
+            } else {
+                System.out.println(df.format(file.ratio()) + "%  " + file.inputBytes + " -> " + file.outputBytes
+                        + " bytes  " + df.format(file.nanos / 1e6) + " ms  " + file.source);
+            }
+        }
+        System.out.println("\n📊 RINGKASAN BATCH:");
+        System.out.println("   Jumlah File:  " + result.files.size() + " (" + result.failures() + " gagal)");
+        System.out.println("   Total Input:  " + result.inputBytes() + " bytes");
+        System.out.println("   Total Output: " + result.outputBytes() + " bytes");
+        if (result.inputBytes() > 0) {
+            System.out.println("   Rasio Total:  " + df.format((double) result.outputBytes() / result.inputBytes() * 100) + "%");
+        }
+        System.out.println("   Waktu:        " + df.format(result.nanos / 1e6) + " ms");
+        System.out.println("   Throughput:   " + df.format(result.throughput()) + " MB/s");
+    }
+}
\ No newline at end of file
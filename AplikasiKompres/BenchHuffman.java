@@ -0,0 +1,272 @@
+// BenchHuffman.java
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.text.DecimalFormat;
+import java.util.*;
+
+// Benchmark per tahap AlgoHuffman: histogram, pohon, kode, encode, decode,
+// serta encode/decode blok utuh dengan tahap LZ.
+// Setiap korpus dijalankan beberapa iterasi pemanasan lalu diukur; hasilnya
+// throughput (MB/s) dan alokasi heap per operasi dari counter alokasi thread.
+//
+// Penggunaan: java BenchHuffman [--size MB] [--warmup N] [--iterations N] [--file path]...
+public class BenchHuffman {
+    private static final DecimalFormat df = new DecimalFormat("#,##0.0");
+    // Jumlah stream untuk mengukur decode blok multi-stream
+    private static final int STREAMS = 4;
+    // Level LZ untuk mengukur blok LZ (kecepatan dibanding rasio)
+    private static final int LZ_LEVEL = 6;
+
+    private interface Phase {
+        void run() throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int sizeMb = 8;
+        int warmup = 5;
+        int iterations = 10;
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--size") && i + 1 < args.length) {
+                sizeMb = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--warmup") && i + 1 < args.length) {
+                warmup = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--iterations") && i + 1 < args.length) {
+                iterations = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--file") && i + 1 < args.length) {
+                files.add(args[++i]);
+            } else {
+                System.out.println("Penggunaan: java BenchHuffman [--size MB] [--warmup N] [--iterations N] [--file path]...");
+                return;
+            }
+        }
+
+        int size = sizeMb << 20;
+        Map<String, byte[]> corpus = new LinkedHashMap<>();
+        corpus.put("english", englishText(size));
+        corpus.put("source", sourceCode(size));
+        corpus.put("logs", logLines(size));
+        corpus.put("random", randomBytes(size));
+        corpus.put("skewed", skewedBytes(size));
+        for (String file : files) {
+            corpus.put(Paths.get(file).getFileName().toString(), Files.readAllBytes(Paths.get(file)));
+        }
+
+        System.out.printf("%-10s %-5s %-10s %12s %10s %14s%n", "korpus", "mode", "tahap", "ms/op", "MB/s", "alokasi B/op");
+        for (Map.Entry<String, byte[]> entry : corpus.entrySet()) {
+            benchBytes(entry.getKey(), entry.getValue(), warmup, iterations);
+            benchChars(entry.getKey(), entry.getValue(), warmup, iterations);
+        }
+    }
+
+    private static void benchBytes(String name, byte[] data, int warmup, int iterations) throws IOException {
+        AlgoHuffman codec = new AlgoHuffman();
+        int length = data.length;
+        HuffmanNode[] root = new HuffmanNode[1];
+        byte[] payload = encodeOnce(codec, data, null, length, 1);
+        byte[] streamsPayload = encodeOnce(codec, data, null, length, STREAMS);
+        OutputStream sink = OutputStream.nullOutputStream();
+        BitWriter writer = new BitWriter(sink);
+
+        run(name, "byte", "histogram", length, warmup, iterations, () -> codec.buildFrequencyMap(data, length));
+        run(name, "byte", "tree", length, warmup, iterations, () -> root[0] = codec.buildHuffmanTree());
+        run(name, "byte", "codes", length, warmup, iterations, () -> codec.generateCodes(root[0]));
+        run(name, "byte", "encode", length, warmup, iterations, () -> codec.encodeSymbols(data, 0, length, writer));
+        run(name, "byte", "decode", length, warmup, iterations, () -> decode(codec, payload, true));
+        run(name, "byte", "decode-x" + STREAMS, length, warmup, iterations, () -> decode(codec, streamsPayload, true));
+
+        codec.setLevel(LZ_LEVEL);
+        byte[] lzPayload = encodeOnce(codec, data, null, length, 1);
+        run(name, "byte", "encode-lz" + LZ_LEVEL, length, warmup, iterations, () -> encodeOnce(codec, data, null, length, 1));
+        codec.setLevel(0);
+        run(name, "byte", "decode-lz" + LZ_LEVEL, length, warmup, iterations, () -> decode(codec, lzPayload, true));
+    }
+
+    // Mode teks: byte korpus dibaca sebagai ISO-8859-1 agar jumlah simbol sama
+    private static void benchChars(String name, byte[] data, int warmup, int iterations) throws IOException {
+        AlgoHuffman codec = new AlgoHuffman();
+        char[] chars = new String(data, StandardCharsets.ISO_8859_1).toCharArray();
+        int length = chars.length;
+        HuffmanNode[] root = new HuffmanNode[1];
+        byte[] payload = encodeOnce(codec, null, chars, length, 1);
+        byte[] streamsPayload = encodeOnce(codec, null, chars, length, STREAMS);
+        OutputStream sink = OutputStream.nullOutputStream();
+        BitWriter writer = new BitWriter(sink);
+
+        run(name, "char", "histogram", length, warmup, iterations, () -> codec.buildFrequencyMap(chars, length));
+        run(name, "char", "tree", length, warmup, iterations, () -> root[0] = codec.buildHuffmanTree());
+        run(name, "char", "codes", length, warmup, iterations, () -> codec.generateCodes(root[0]));
+        run(name, "char", "encode", length, warmup, iterations, () -> codec.encodeSymbols(chars, 0, length, writer));
+        run(name, "char", "decode", length, warmup, iterations, () -> decode(codec, payload, false));
+        run(name, "char", "decode-x" + STREAMS, length, warmup, iterations, () -> decode(codec, streamsPayload, false));
+
+        codec.setLevel(LZ_LEVEL);
+        byte[] lzPayload = encodeOnce(codec, null, chars, length, 1);
+        run(name, "char", "encode-lz" + LZ_LEVEL, length, warmup, iterations, () -> encodeOnce(codec, null, chars, length, 1));
+        codec.setLevel(0);
+        run(name, "char", "decode-lz" + LZ_LEVEL, length, warmup, iterations, () -> decode(codec, lzPayload, false));
+    }
+
+    // Satu frame blok utuh (lihat AlgoHuffman.encodeBlock) sebagai input tahap decode
+    private static byte[] encodeOnce(AlgoHuffman codec, byte[] data, char[] chars, int length,
+                                     int streams) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(length);
+        DataOutputStream dos = new DataOutputStream(encoded);
+        BitWriter writer = new BitWriter(dos);
+        codec.setStreams(streams);
+        if (data != null) {
+            codec.encodeBlock(data, length, dos, writer);
+        } else {
+            codec.encodeBlock(chars, length, dos, writer);
+        }
+        codec.setStreams(1);
+        return encoded.toByteArray();
+    }
+
+    private static int decode(AlgoHuffman codec, byte[] frame, boolean binary) throws IOException {
+        return codec.decodeFrame(new DataInputStream(new ByteArrayInputStream(frame)), binary);
+    }
+
+    private static void run(String corpus, String mode, String phase, int bytes, int warmup, int iterations,
+                            Phase body) throws IOException {
+        for (int i = 0; i < warmup; i++) {
+            body.run();
+        }
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            body.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        double msPerOp = elapsed / 1e6 / iterations;
+        double mbPerSec = (double) bytes * iterations / (1 << 20) / (elapsed / 1e9);
+        String allocPerOp = allocatedBefore < 0 ? "n/a" : df.format((double) allocated / iterations);
+        System.out.printf("%-10s %-5s %-10s %12s %10s %14s%n", corpus, mode, phase,
+                df.format(msPerOp), df.format(mbPerSec), allocPerOp);
+    }
+
+    // Byte yang dialokasikan thread ini (sama dengan sumber data profiler GC JMH)
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    // ======== Korpus sintetis (deterministik) ========
+
+    private static final String[] WORDS = {
+        "the", "of", "and", "to", "a", "in", "is", "it", "you", "that", "he", "was", "for", "on", "are",
+        "with", "as", "his", "they", "be", "at", "one", "have", "this", "from", "or", "had", "by", "word",
+        "but", "what", "some", "we", "can", "out", "other", "were", "all", "there", "when", "up", "use",
+        "your", "how", "said", "an", "each", "she", "which", "do", "their", "time", "if", "will", "way",
+        "about", "many", "then", "them", "write", "would", "like", "so", "these", "her", "long", "make",
+        "thing", "see", "him", "two", "has", "look", "more", "day", "could", "go", "come", "did", "number",
+        "sound", "no", "most", "people", "my", "over", "know", "water", "than", "call", "first", "who",
+        "compression", "algorithm", "frequency", "symbol", "table", "stream", "block", "decoder"
+    };
+
+    private static byte[] englishText(int size) {
+        Random random = new Random(1);
+        StringBuilder text = new StringBuilder(size + 64);
+        int sentence = 0;
+        while (text.length() < size) {
+            // Distribusi Zipf kasar: kata di awal daftar jauh lebih sering
+            int index = (int) (WORDS.length * Math.pow(random.nextDouble(), 3));
+            String word = WORDS[index];
+            if (sentence == 0) {
+                text.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            } else {
+                text.append(word);
+            }
+            sentence++;
+            if (sentence > 6 && random.nextInt(8) == 0) {
+                text.append(random.nextInt(5) == 0 ? ".\n" : ". ");
+                sentence = 0;
+            } else {
+                text.append(random.nextInt(12) == 0 ? ", " : " ");
+            }
+        }
+        return Arrays.copyOf(text.toString().getBytes(StandardCharsets.ISO_8859_1), size);
+    }
+
+    private static byte[] sourceCode(int size) {
+        Random random = new Random(2);
+        String[] types = {"int", "long", "String", "byte[]", "List<String>", "Map<String, Integer>"};
+        String[] names = {"count", "index", "buffer", "length", "result", "node", "value", "offset", "total"};
+        StringBuilder code = new StringBuilder(size + 256);
+        int method = 0;
+        while (code.length() < size) {
+            String type = types[random.nextInt(types.length)];
+            code.append("    private ").append(type).append(" compute").append(method++).append("(")
+                .append(type).append(' ').append(names[random.nextInt(names.length)]).append(") {\n");
+            int lines = 2 + random.nextInt(8);
+            for (int i = 0; i < lines; i++) {
+                String a = names[random.nextInt(names.length)];
+                String b = names[random.nextInt(names.length)];
+                switch (random.nextInt(4)) {
+                    case 0:
+                        code.append("        ").append(a).append(" += ").append(b).append(" * ").append(random.nextInt(64)).append(";\n");
+                        break;
+                    case 1:
+                        code.append("        if (").append(a).append(" > ").append(b).append(") {\n            return ")
+                            .append(a).append(";\n        }\n");
+                        break;
+                    case 2:
+                        code.append("        for (int i = 0; i < ").append(a).append(".length; i++) {\n            ")
+                            .append(b).append("[i] = ").append(a).append("[i];\n        }\n");
+                        break;
+                    default:
+                        code.append("        // TODO: periksa ").append(a).append(" sebelum dipakai\n");
+                }
+            }
+            code.append("        return ").append(names[random.nextInt(names.length)]).append(";\n    }\n\n");
+        }
+        return Arrays.copyOf(code.toString().getBytes(StandardCharsets.ISO_8859_1), size);
+    }
+
+    private static byte[] logLines(int size) {
+        Random random = new Random(3);
+        String[] levels = {"INFO ", "INFO ", "INFO ", "DEBUG", "WARN ", "ERROR"};
+        String[] paths = {"/api/v1/items", "/api/v1/users", "/health", "/api/v1/orders", "/static/app.js"};
+        int[] statuses = {200, 200, 200, 201, 204, 304, 404, 500};
+        StringBuilder log = new StringBuilder(size + 256);
+        long millis = 1_700_000_000_000L;
+        while (log.length() < size) {
+            millis += random.nextInt(50);
+            long seconds = (millis / 1000) % 86400;
+            log.append("2026-10-18T")
+                .append(String.format("%02d:%02d:%02d.%03d", seconds / 3600, (seconds / 60) % 60, seconds % 60, millis % 1000))
+                .append("Z ").append(levels[random.nextInt(levels.length)])
+                .append(" [worker-").append(random.nextInt(16)).append("] RequestHandler - GET ")
+                .append(paths[random.nextInt(paths.length)]).append('/').append(random.nextInt(100000))
+                .append(' ').append(statuses[random.nextInt(statuses.length)])
+                .append(' ').append(random.nextInt(250)).append("ms\n");
+        }
+        return Arrays.copyOf(log.toString().getBytes(StandardCharsets.ISO_8859_1), size);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(4).nextBytes(data);
+        return data;
+    }
+
+    // Distribusi geometris: menghasilkan kode yang sangat panjang untuk simbol langka
+    private static byte[] skewedBytes(int size) {
+        Random random = new Random(5);
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) Integer.numberOfTrailingZeros(random.nextInt() | (1 << 30));
+        }
+        return data;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+// BitReader.java
+import java.io.*;
+
+// Membaca bit mentah (MSB lebih dulu, seperti BitWriter) dari array byte.
+// Dipakai untuk bit tambahan sekuens LZ; kode Huffman dibaca HuffmanDecoder.
+class BitReader {
+    private final byte[] data;
+    private final int end;
+    private int position;
+    private long accumulator;
+    private int accumulatorBits;
+
+    BitReader(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    // Baca count bit (0-32) sebagai bilangan tak bertanda
+    int read(int count) throws IOException {
+        while (accumulatorBits < count) {
+            if (position == end) {
+                throw new EOFException("Bitstream terpotong");
+            }
+            accumulator = (accumulator << 8) | (data[position++] & 0xFF);
+            accumulatorBits += 8;
+        }
+        accumulatorBits -= count;
+        return (int) ((accumulator >>> accumulatorBits) & ((1L << count) - 1));
+    }
+}
\ No newline at end of file
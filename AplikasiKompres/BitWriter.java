@@ -0,0 +1,64 @@
+// BitWriter.java
+import java.io.*;
+
+// Menulis kode Huffman (MSB lebih dulu) ke akumulator long dan
+// mem-flush per word 32-bit ke buffer byte yang dipakai ulang.
+class BitWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private long accumulator;
+    private int accumulatorBits;
+
+    BitWriter(OutputStream out) {
+        this.out = out;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    void write(long code, int length) throws IOException {
+        if (length > 32) {
+            // Pecah kode panjang agar akumulator tidak meluap
+            write(code >>> 32, length - 32);
+            code &= 0xFFFFFFFFL;
+            length = 32;
+        }
+        accumulator = (accumulator << length) | code;
+        accumulatorBits += length;
+        if (accumulatorBits >= 32) {
+            accumulatorBits -= 32;
+            int word = (int) (accumulator >>> accumulatorBits);
+            if (position > BUFFER_SIZE - 4) {
+                flushBuffer();
+            }
+            byte[] buf = buffer;
+            int p = position;
+            buf[p] = (byte) (word >>> 24);
+            buf[p + 1] = (byte) (word >>> 16);
+            buf[p + 2] = (byte) (word >>> 8);
+            buf[p + 3] = (byte) word;
+            position = p + 4;
+        }
+    }
+
+    // Tulis sisa bit (dipadding nol sampai satu byte penuh) ke stream
+    void flush() throws IOException {
+        while (accumulatorBits > 0) {
+            if (position == BUFFER_SIZE) {
+                flushBuffer();
+            }
+            int shift = accumulatorBits - 8;
+            int b = (int) (shift >= 0 ? accumulator >>> shift : accumulator << -shift);
+            buffer[position++] = (byte) b;
+            accumulatorBits = Math.max(0, shift);
+        }
+        accumulator = 0;
+        flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+    }
+}
\ No newline at end of file
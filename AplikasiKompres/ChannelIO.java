@@ -0,0 +1,244 @@
+// ChannelIO.java
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.*;
+
+// Adapter I/O berbasis NIO untuk AlgoHuffman: input file di-map ke memori
+// per jendela besar, output ditulis ke FileChannel dengan gathered write.
+final class ChannelIO {
+    // Ukuran jendela mapping; file yang lebih besar di-map bertahap
+    static final int MAP_WINDOW = 256 << 20;
+    private static final int OUTPUT_BUFFER = 1 << 20;
+    private static final int DIRECT_WRITE = 64 * 1024;
+
+    private ChannelIO() {
+    }
+
+    // Byte dari file yang di-map; read() langsung menyalin dari page cache
+    static class MappedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final long size;
+        private long windowStart;
+        private MappedByteBuffer window;
+
+        MappedInputStream(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        private boolean ensureWindow() throws IOException {
+            if (window != null && window.hasRemaining()) {
+                return true;
+            }
+            long next = window == null ? 0 : windowStart + window.limit();
+            if (next >= size) {
+                return false;
+            }
+            window = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(MAP_WINDOW, size - next));
+            windowStart = next;
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return ensureWindow() ? window.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (!ensureWindow()) return -1;
+            int n = Math.min(len, window.remaining());
+            window.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return window == null ? (int) Math.min(size, Integer.MAX_VALUE) : window.remaining();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // Teks dari file yang di-map; CharsetDecoder menulis langsung ke array
+    // tujuan tanpa buffer perantara milik InputStreamReader
+    static class MappedReader extends Reader {
+        private final FileChannel channel;
+        private final long size;
+        private final CharsetDecoder decoder;
+        private long windowStart;
+        private MappedByteBuffer window;
+        private boolean finished;
+
+        MappedReader(FileChannel channel, Charset charset) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            this.finished = size == 0;
+            if (!finished) {
+                map(0);
+            }
+        }
+
+        private void map(long start) throws IOException {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(MAP_WINDOW, size - start));
+            windowStart = start;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+            while (out.hasRemaining() && !finished) {
+                boolean last = windowStart + window.limit() >= size;
+                CoderResult result = decoder.decode(window, out, last);
+                if (result.isOverflow()) break;
+                if (result.isError()) result.throwException();
+                if (!last) {
+                    // Sisa byte (karakter multi-byte yang terpotong) ikut ke jendela berikutnya
+                    map(windowStart + window.position());
+                } else if (decoder.flush(out).isUnderflow()) {
+                    finished = true;
+                } else {
+                    break;
+                }
+            }
+            int n = out.position() - off;
+            return n == 0 && finished ? -1 : n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    // Menghitung byte yang sudah ditulis, untuk mencatat offset blok di indeks
+    static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    // Menghitung byte yang sudah dibaca, untuk metrik ukuran input terkompresi
+    static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    // Penulisan kecil dikumpulkan di buffer direct; penulisan besar dikirim
+    // bersama isi buffer dalam satu gathered write tanpa disalin dulu
+    static class ChannelOutputStream extends OutputStream {
+        private final GatheringByteChannel channel;
+        private final ByteBuffer buffer;
+        private final ByteBuffer[] gather;
+
+        ChannelOutputStream(GatheringByteChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(OUTPUT_BUFFER);
+            this.gather = new ByteBuffer[2];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flushBuffer();
+            }
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len >= DIRECT_WRITE) {
+                buffer.flip();
+                gather[0] = buffer;
+                gather[1] = ByteBuffer.wrap(b, off, len);
+                while (gather[0].hasRemaining() || gather[1].hasRemaining()) {
+                    channel.write(gather);
+                }
+                gather[1] = null;
+                buffer.clear();
+                return;
+            }
+            if (buffer.remaining() < len) {
+                flushBuffer();
+            }
+            buffer.put(b, off, len);
+        }
+
+        private void flushBuffer() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flushBuffer();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
\ No newline at end of file
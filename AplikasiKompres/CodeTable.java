@@ -0,0 +1,243 @@
+// CodeTable.java
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tabel kode Huffman statis yang dilatih dari contoh data dan dipakai
+// bersama oleh banyak file kecil. File .huff hanya menyimpan ID tabel, jadi
+// kompresi dan dekompresi tidak perlu histogram, pohon maupun header kode.
+public final class CodeTable {
+    private static final int TABLE_MAGIC = 0x48554654; // "HUFT"
+    private static final int TABLE_VERSION = 1;
+    private static final int ALPHABET_SIZE = 65536;
+    private static final int BYTE_ALPHABET_SIZE = 256;
+
+    // Tabel yang sudah dimuat, per ID; decoder setiap tabel dibangun sekali
+    // lalu dipakai ulang oleh semua dekompresi berikutnya
+    private static final Map<Integer, CodeTable> registry = new ConcurrentHashMap<>();
+
+    private final int id;
+    private final boolean binary;
+    private final int[] symbols;
+    private final int[] lengths;
+    private final long[] codes;
+
+    // Kode per simbol untuk encoder; panjang 0 = simbol tidak tercakup tabel
+    private final long[] codeBits;
+    private final byte[] codeLengths;
+
+    private volatile HuffmanDecoder decoder;
+
+    CodeTable(int id, boolean binary, int[] symbols, int[] lengths) throws IOException {
+        int count = symbols.length;
+        this.id = id;
+        this.binary = binary;
+        this.symbols = symbols.clone();
+        this.lengths = lengths.clone();
+        this.codes = new long[count];
+        AlgoHuffman.assignCanonicalCodes(this.symbols, this.lengths, count, codes);
+
+        int alphabetSize = binary ? BYTE_ALPHABET_SIZE : ALPHABET_SIZE;
+        codeBits = new long[alphabetSize];
+        codeLengths = new byte[alphabetSize];
+        for (int i = 0; i < count; i++) {
+            codeBits[symbols[i]] = codes[i];
+            codeLengths[symbols[i]] = (byte) lengths[i];
+        }
+    }
+
+    // Latih tabel mode biner. Semua 256 byte selalu mendapat kode, jadi
+    // setiap input bisa dikodekan dengan tabel ini.
+    public static CodeTable trainBytes(int id, Iterable<byte[]> samples) throws IOException {
+        long[] counts = new long[BYTE_ALPHABET_SIZE];
+        for (byte[] sample : samples) {
+            for (byte b : sample) {
+                counts[b & 0xFF]++;
+            }
+        }
+        return train(id, true, counts);
+    }
+
+    // Latih tabel mode teks. Char di bawah 256 selalu mendapat kode; char lain
+    // hanya jika muncul di contoh. Blok dengan char di luar tabel dikodekan
+    // dengan tabelnya sendiri seperti biasa.
+    public static CodeTable trainChars(int id, Iterable<? extends CharSequence> samples) throws IOException {
+        long[] counts = new long[ALPHABET_SIZE];
+        for (CharSequence sample : samples) {
+            for (int i = 0; i < sample.length(); i++) {
+                counts[sample.charAt(i)]++;
+            }
+        }
+        return train(id, false, counts);
+    }
+
+    private static CodeTable train(int id, boolean binary, long[] counts) throws IOException {
+        // Skalakan agar jumlah frekuensi muat di int (bobot node pohon)
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        long divisor = total / (Integer.MAX_VALUE / 2) + 1;
+        int[] frequencies = new int[counts.length];
+        for (int c = 0; c < counts.length; c++) {
+            frequencies[c] = (int) ((counts[c] + divisor - 1) / divisor);
+            if (c < BYTE_ALPHABET_SIZE && frequencies[c] == 0) {
+                frequencies[c] = 1;
+            }
+        }
+        return new AlgoHuffman().trainCodeTable(id, binary, frequencies);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    // Daftarkan tabel agar file yang mereferensikan ID-nya bisa didekompresi.
+    // Mendaftarkan ulang tabel yang isinya sama tidak mengubah apa-apa; ID
+    // yang sudah dipakai tabel lain ditolak, karena file .huff yang sudah ada
+    // akan didekode dengan kode yang salah.
+    public static void register(CodeTable table) {
+        CodeTable existing = registry.putIfAbsent(table.id, table);
+        if (existing != null && !existing.sameCodes(table)) {
+            throw new IllegalArgumentException("ID tabel kode sudah dipakai tabel lain: " + table.id);
+        }
+    }
+
+    private boolean sameCodes(CodeTable other) {
+        return binary == other.binary && Arrays.equals(symbols, other.symbols) && Arrays.equals(lengths, other.lengths);
+    }
+
+    public static CodeTable forId(int id) {
+        return registry.get(id);
+    }
+
+    // Muat tabel dari file lalu daftarkan
+    public static CodeTable load(String fileName) throws IOException {
+        InputStream in = new FileInputStream(fileName);
+        try {
+            CodeTable table = read(in);
+            register(table);
+            return table;
+        } finally {
+            in.close();
+        }
+    }
+
+    public void save(String fileName) throws IOException {
+        OutputStream out = new FileOutputStream(fileName);
+        try {
+            write(out);
+        } finally {
+            out.close();
+        }
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out));
+        dos.writeInt(TABLE_MAGIC);
+        dos.writeByte(TABLE_VERSION);
+        dos.writeInt(id);
+        dos.writeBoolean(binary);
+        dos.writeShort(symbols.length - 1);
+        int previous = -1;
+        for (int i = 0; i < symbols.length; i++) {
+            AlgoHuffman.writeVarInt(dos, symbols[i] - previous - 1);
+            dos.writeByte(lengths[i]);
+            previous = symbols[i];
+        }
+        dos.flush();
+    }
+
+    public static CodeTable read(InputStream in) throws IOException {
+        DataInputStream dis = new DataInputStream(new BufferedInputStream(in));
+        if (dis.readInt() != TABLE_MAGIC) {
+            throw new IOException("Bukan file tabel kode yang valid");
+        }
+        int version = dis.readUnsignedByte();
+        if (version != TABLE_VERSION) {
+            throw new IOException("Versi tabel kode tidak didukung: " + version);
+        }
+        int id = dis.readInt();
+        boolean binary = dis.readBoolean();
+        int alphabetSize = binary ? BYTE_ALPHABET_SIZE : ALPHABET_SIZE;
+        int count = dis.readUnsignedShort() + 1;
+        if (count > alphabetSize) {
+            throw new IOException("Tabel kode rusak");
+        }
+        int[] symbols = new int[count];
+        int[] lengths = new int[count];
+        int symbol = -1;
+        for (int i = 0; i < count; i++) {
+            symbol += AlgoHuffman.readVarInt(dis) + 1;
+            if (symbol >= alphabetSize) {
+                throw new IOException("Tabel kode rusak");
+            }
+            symbols[i] = symbol;
+            lengths[i] = dis.readUnsignedByte();
+        }
+        return new CodeTable(id, binary, symbols, lengths);
+    }
+
+    HuffmanDecoder decoder() throws IOException {
+        HuffmanDecoder d = decoder;
+        if (d == null) {
+            d = new HuffmanDecoder(symbols, codes, lengths, symbols.length);
+            decoder = d;
+        }
+        return d;
+    }
+
+    // Panjang bitstream block[0..length) dengan tabel ini, atau -1 jika ada
+    // simbol yang tidak tercakup
+    long bitLength(char[] block, int length) {
+        if (binary) {
+            return -1;
+        }
+        byte[] lens = codeLengths;
+        long bits = 0;
+        for (int i = 0; i < length; i++) {
+            int len = lens[block[i]];
+            if (len == 0) {
+                return -1;
+            }
+            bits += len;
+        }
+        return bits;
+    }
+
+    long bitLength(byte[] block, int length) {
+        if (!binary) {
+            return -1;
+        }
+        byte[] lens = codeLengths;
+        long bits = 0;
+        for (int i = 0; i < length; i++) {
+            bits += lens[block[i] & 0xFF];
+        }
+        return bits;
+    }
+
+    void encode(char[] block, int length, BitWriter writer) throws IOException {
+        long[] bits = codeBits;
+        byte[] lens = codeLengths;
+        for (int i = 0; i < length; i++) {
+            char c = block[i];
+            writer.write(bits[c], lens[c]);
+        }
+        writer.flush();
+    }
+
+    void encode(byte[] block, int length, BitWriter writer) throws IOException {
+        long[] bits = codeBits;
+        byte[] lens = codeLengths;
+        for (int i = 0; i < length; i++) {
+            int b = block[i] & 0xFF;
+            writer.write(bits[b], lens[b]);
+        }
+        writer.flush();
+    }
+}
\ No newline at end of file
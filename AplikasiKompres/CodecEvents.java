@@ -0,0 +1,33 @@
+// CodecEvents.java
+import jdk.jfr.*;
+
+// Event JFR per blok. Hanya tercatat jika ada rekaman JFR yang aktif
+// (mis. -XX:StartFlightRecording); tanpa rekaman biayanya hampir nol.
+final class CodecEvents {
+    private CodecEvents() {
+    }
+
+    @Name("kompres.BlockEncode")
+    @Label("Huffman Block Encode")
+    @Category("Kompres")
+    @StackTrace(false)
+    static class BlockEncode extends Event {
+        @Label("Symbols")
+        int symbols;
+
+        @Label("Block Type")
+        int blockType;
+    }
+
+    @Name("kompres.BlockDecode")
+    @Label("Huffman Block Decode")
+    @Category("Kompres")
+    @StackTrace(false)
+    static class BlockDecode extends Event {
+        @Label("Symbols")
+        int symbols;
+
+        @Label("Block Type")
+        int blockType;
+    }
+}
\ No newline at end of file
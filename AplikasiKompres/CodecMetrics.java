@@ -0,0 +1,179 @@
+// CodecMetrics.java
+import java.util.concurrent.atomic.*;
+
+// Metrik codec yang cukup murah untuk selalu aktif: diperbarui sekali per
+// tahap per blok (bukan per simbol) dengan LongAdder, sehingga aman dipakai
+// bersama oleh thread worker dan oleh beberapa instance AlgoHuffman.
+public final class CodecMetrics {
+    // Tahap yang diukur. MATCH adalah pencarian pengulangan tahap LZ; ENCODE
+    // termasuk penulisan header blok dan bitstream ke output; CHECKSUM adalah
+    // CRC32C per blok; IO adalah pembacaan input dan penulisan hasil yang
+    // terpisah dari encode/decode.
+    public enum Phase {
+        MATCH, HISTOGRAM, TREE, CODES, ENCODE, DECODE_TABLE, DECODE, CHECKSUM, IO
+    }
+
+    private final LongAdder[] phaseNanos;
+    private final LongAdder operations;
+    private final LongAdder operationNanos;
+    private final LongAdder symbols;
+    private final LongAdder compressedBytes;
+    private final LongAdder blocks;
+    private final LongAdder storedBlocks;
+    private final LongAdder sharedBlocks;
+    private final LongAdder lzBlocks;
+    private final LongAdder codeTableBytes;
+    private final LongAccumulator maxDecoderTable;
+    private final LongAccumulator peakBufferBytes;
+
+    public CodecMetrics() {
+        phaseNanos = new LongAdder[Phase.values().length];
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = new LongAdder();
+        }
+        operations = new LongAdder();
+        operationNanos = new LongAdder();
+        symbols = new LongAdder();
+        compressedBytes = new LongAdder();
+        blocks = new LongAdder();
+        storedBlocks = new LongAdder();
+        sharedBlocks = new LongAdder();
+        lzBlocks = new LongAdder();
+        codeTableBytes = new LongAdder();
+        maxDecoderTable = new LongAccumulator(Math::max, 0);
+        peakBufferBytes = new LongAccumulator(Math::max, 0);
+    }
+
+    void add(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()].add(nanos);
+    }
+
+    void addOperation(long nanos, long symbolCount, long compressedSize) {
+        operations.increment();
+        operationNanos.add(nanos);
+        symbols.add(symbolCount);
+        compressedBytes.add(compressedSize);
+    }
+
+    void addBlock(int type) {
+        blocks.increment();
+        if (type == AlgoHuffman.BLOCK_STORED) {
+            storedBlocks.increment();
+        } else if (type == AlgoHuffman.BLOCK_SHARED) {
+            sharedBlocks.increment();
+        } else if (type == AlgoHuffman.BLOCK_LZ) {
+            lzBlocks.increment();
+        }
+    }
+
+    void addCodeTable(int bytes) {
+        codeTableBytes.add(bytes);
+    }
+
+    void recordDecoderTable(int entries) {
+        maxDecoderTable.accumulate(entries);
+    }
+
+    void recordBuffers(long bytes) {
+        peakBufferBytes.accumulate(bytes);
+    }
+
+    public long getNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()].sum();
+    }
+
+    public long getOperations() {
+        return operations.sum();
+    }
+
+    // Total waktu kompresi/dekompresi dari sisi pemanggil
+    public long getOperationNanos() {
+        return operationNanos.sum();
+    }
+
+    // Simbol tidak terkompresi: byte pada mode biner, char pada mode teks
+    public long getSymbols() {
+        return symbols.sum();
+    }
+
+    // Ukuran file .huff yang ditulis atau dibaca
+    public long getCompressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    public long getBlocks() {
+        return blocks.sum();
+    }
+
+    public long getStoredBlocks() {
+        return storedBlocks.sum();
+    }
+
+    public long getSharedBlocks() {
+        return sharedBlocks.sum();
+    }
+
+    public long getLzBlocks() {
+        return lzBlocks.sum();
+    }
+
+    // Total byte tabel kode per blok yang ditulis ke header
+    public long getCodeTableBytes() {
+        return codeTableBytes.sum();
+    }
+
+    // Entri tabel decoder terbesar (tabel primer dan subtabel)
+    public long getMaxDecoderTable() {
+        return maxDecoderTable.get();
+    }
+
+    // Buffer blok terbesar yang dipegang satu instance, dalam byte
+    public long getPeakBufferBytes() {
+        return peakBufferBytes.get();
+    }
+
+    public double getSymbolsPerSecond() {
+        long nanos = getOperationNanos();
+        return nanos == 0 ? 0 : getSymbols() * 1e9 / nanos;
+    }
+
+    public void reset() {
+        for (LongAdder adder : phaseNanos) {
+            adder.reset();
+        }
+        operations.reset();
+        operationNanos.reset();
+        symbols.reset();
+        compressedBytes.reset();
+        blocks.reset();
+        storedBlocks.reset();
+        sharedBlocks.reset();
+        lzBlocks.reset();
+        codeTableBytes.reset();
+        maxDecoderTable.reset();
+        peakBufferBytes.reset();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("operasi=").append(getOperations())
+                .append(" waktu=").append(getOperationNanos() / 1000).append("us")
+                .append(" simbol=").append(getSymbols())
+                .append(" terkompresi=").append(getCompressedBytes()).append("B")
+                .append(" simbol/s=").append((long) getSymbolsPerSecond())
+                .append('\n');
+        sb.append("blok=").append(getBlocks())
+                .append(" tersimpan=").append(getStoredBlocks())
+                .append(" tabel-bersama=").append(getSharedBlocks())
+                .append(" lz=").append(getLzBlocks())
+                .append(" tabel-kode=").append(getCodeTableBytes()).append("B")
+                .append(" tabel-decoder=").append(getMaxDecoderTable())
+                .append(" buffer-puncak=").append(getPeakBufferBytes()).append("B")
+                .append('\n');
+        for (Phase phase : Phase.values()) {
+            sb.append(phase.name().toLowerCase()).append('=').append(getNanos(phase) / 1000).append("us ");
+        }
+        return sb.toString().trim();
+    }
+}
\ No newline at end of file
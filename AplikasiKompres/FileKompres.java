@@ -6,19 +6,79 @@ import java.text.DecimalFormat;
 public class FileKompres {
     private static final DecimalFormat df = new DecimalFormat("#.##");
     
+    // Jumlah thread kompresi/dekompresi, diatur lewat opsi --threads N
+    private static int threads = 1;
+    
+    // Mode biner (--binary): file dikompres byte per byte tanpa decode charset
+    private static boolean binaryMode = false;
+    
+    // Jumlah bitstream per blok (--streams N), 1 = format biasa
+    private static int streams = 1;
+    
+    // Level tahap LZ sebelum Huffman (--level N), 0 = hanya Huffman
+    private static int level = 0;
+    
+    // Tampilkan metrik per tahap codec setelah setiap operasi (--metrics)
+    private static boolean showMetrics = false;
+    
+    // Tulis indeks blok untuk akses acak (--index)
+    private static boolean indexed = false;
+    
+    // Tabel kode bersama hasil pelatihan (--table file), dimuat saat start
+    private static String tableFileName = null;
+    private static CodeTable codeTable = null;
+    
+    // Mode pipeline (--stream compress|decompress): stdin ke stdout tanpa menu.
+    // Blok ditutup saat penuh (--block-size N) atau setelah --flush-ms N.
+    private static String streamMode = null;
+    private static long flushMillis = 1000;
+    private static int blockSize = 0;
+    
     public static void main(String[] args) {
+        if (!parseOptions(args)) {
+            return;
+        }
+        if (tableFileName != null) {
+            try {
+                codeTable = CodeTable.load(tableFileName);
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Gagal memuat tabel kode: " + e.getMessage());
+                return;
+            }
+        }
+        if (streamMode != null) {
+            runStream();
+            return;
+        }
+        
         Scanner scanner = new Scanner(System.in);
         
         System.out.println("==========================================");
         System.out.println("    Aplikasi Kompres File Teks");
         System.out.println("==========================================");
+        if (threads > 1) {
+            System.out.println("Mode paralel: " + threads + " thread");
+        }
+        if (binaryMode) {
+            System.out.println("Mode biner: file dikompres byte per byte");
+        }
+        if (streams > 1) {
+            System.out.println("Mode multi-stream: " + streams + " stream per blok");
+        }
+        if (level > 0) {
+            System.out.println("Level LZ: " + level);
+        }
+        if (codeTable != null) {
+            System.out.println("Tabel kode bersama: ID " + codeTable.getId());
+        }
         
         while (true) {
             System.out.println("\nMenu:");
             System.out.println("1. Kompresi File");
             System.out.println("2. Dekompresi File");
-            System.out.println("3. Keluar");
-            System.out.print("Pilih menu (1-3): ");
+            System.out.println("3. Verifikasi File");
+            System.out.println("4. Keluar");
+            System.out.print("Pilih menu (1-4): ");
             
             String choice = scanner.nextLine();
             
@@ -30,15 +90,126 @@ public class FileKompres {
                     decompressFile(scanner);
                     break;
                 case "3":
+                    verifyFile(scanner);
+                    break;
+                case "4":
                     System.out.println("Terima kasih telah menggunakan program!");
                     scanner.close();
                     return;
                 default:
-                    System.out.println("Pilihan tidak valid! Silakan pilih 1-3.");
+                    System.out.println("Pilihan tidak valid! Silakan pilih 1-4.");
             }
         }
     }
     
+    private static boolean parseOptions(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if ((args[i].equals("--threads") || args[i].equals("-t")) && i + 1 < args.length) {
+                try {
+                    threads = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    threads = 0;
+                }
+                if (threads <= 0) {
+                    System.out.println("Jumlah thread tidak valid: " + args[i]);
+                    return false;
+                }
+            } else if ((args[i].equals("--streams") || args[i].equals("-s")) && i + 1 < args.length) {
+                try {
+                    streams = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    streams = 0;
+                }
+                if (streams <= 0 || streams > AlgoHuffman.MAX_STREAMS) {
+                    System.out.println("Jumlah stream tidak valid: " + args[i]);
+                    return false;
+                }
+            } else if ((args[i].equals("--level") || args[i].equals("-l")) && i + 1 < args.length) {
+                try {
+                    level = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    level = -1;
+                }
+                if (level < 0 || level > LzParser.MAX_LEVEL) {
+                    System.out.println("Level tidak valid: " + args[i]);
+                    return false;
+                }
+            } else if (args[i].equals("--stream") && i + 1 < args.length) {
+                streamMode = args[++i];
+                if (!streamMode.equals("compress") && !streamMode.equals("decompress")) {
+                    System.out.println("Mode stream tidak valid: " + streamMode);
+                    return false;
+                }
+            } else if (args[i].equals("--flush-ms") && i + 1 < args.length) {
+                try {
+                    flushMillis = Long.parseLong(args[++i]);
+                } catch (NumberFormatException e) {
+                    flushMillis = 0;
+                }
+                if (flushMillis <= 0) {
+                    System.out.println("Interval flush tidak valid: " + args[i]);
+                    return false;
+                }
+            } else if (args[i].equals("--block-size") && i + 1 < args.length) {
+                try {
+                    blockSize = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    blockSize = 0;
+                }
+                if (blockSize <= 0) {
+                    System.out.println("Ukuran blok tidak valid: " + args[i]);
+                    return false;
+                }
+            } else if (args[i].equals("--metrics")) {
+                showMetrics = true;
+            } else if (args[i].equals("--index")) {
+                indexed = true;
+            } else if (args[i].equals("--table") && i + 1 < args.length) {
+                tableFileName = args[++i];
+            } else if (args[i].equals("--binary") || args[i].equals("-b")) {
+                binaryMode = true;
+            } else {
+                System.out.println("Opsi tidak dikenal: " + args[i]);
+                System.out.println("Penggunaan: java FileKompres [--threads N] [--binary] [--level N] [--streams N] [--table file] [--index] [--metrics]");
+                System.out.println("            java FileKompres --stream compress|decompress [--flush-ms N] [--block-size N] < input > output");
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // stdout hanya berisi data; pesan dan metrik ditulis ke stderr
+    private static void runStream() {
+        AlgoHuffman huffman = new AlgoHuffman();
+        huffman.setThreads(threads);
+        huffman.setStreams(streams);
+        huffman.setLevel(level);
+        huffman.setIndexed(indexed);
+        huffman.setFlushInterval(flushMillis);
+        if (blockSize > 0) {
+            huffman.setBlockSize(blockSize);
+        }
+        if (codeTable != null) {
+            huffman.setCodeTable(codeTable);
+        }
+        
+        OutputStream out = new FileOutputStream(FileDescriptor.out);
+        try {
+            if (streamMode.equals("compress")) {
+                huffman.compress(System.in, out);
+            } else {
+                huffman.decompress(System.in, out);
+            }
+            out.flush();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+        if (showMetrics) {
+            System.err.println(huffman.getMetrics());
+        }
+    }
+    
     private static void compressFile(Scanner scanner) {
         System.out.println("\n--- KOMPRESI FILE ---");
         System.out.print("Masukkan nama file yang akan dikompresi: ");
@@ -72,12 +243,15 @@ public class FileKompres {
             System.out.println("\nMelakukan kompresi...");
             long startTime = System.currentTimeMillis();
             
-            // Baca konten file
-            String content = readTextFile(inputFile);
-            
-            // Lakukan kompresi Huffman
+            // Lakukan kompresi Huffman, file di-map ke memori dan dibaca per blok
             AlgoHuffman compressor = new AlgoHuffman();
-            compressor.compress(content, outputFileName);
+            compressor.setThreads(threads);
+            compressor.setBinaryMode(binaryMode);
+            compressor.setStreams(streams);
+            compressor.setLevel(level);
+            compressor.setCodeTable(codeTable);
+            compressor.setIndexed(indexed);
+            compressor.compressFile(inputFileName, outputFileName);
             
             long endTime = System.currentTimeMillis();
             long compressionTime = endTime - startTime;
@@ -87,6 +261,9 @@ public class FileKompres {
             
             // Hitung dan tampilkan rasio kompresi
             displayCompressionRatio(inputFile, outputFile, compressionTime);
+            if (showMetrics) {
+                displayMetrics(compressor.getMetrics());
+            }
             
             System.out.println("\n Kompresi berhasil! File disimpan sebagai: " + outputFileName);
             
@@ -128,6 +305,7 @@ public class FileKompres {
             
             // Lakukan dekompresi
             AlgoHuffman compressor = new AlgoHuffman();
+            compressor.setThreads(threads);
             compressor.decompress(inputFileName, outputFileName);
             
             long endTime = System.currentTimeMillis();
@@ -137,6 +315,9 @@ public class FileKompres {
             displayFileInfo("HASIL DEKOMPRESI", outputFile);
             
             System.out.println("\nWaktu dekompresi: " + decompressionTime + " ms");
+            if (showMetrics) {
+                displayMetrics(compressor.getMetrics());
+            }
             System.out.println("Dekompresi berhasil! File disimpan sebagai: " + outputFileName);
             
         } catch (IOException e) {
@@ -146,21 +327,37 @@ public class FileKompres {
         }
     }
     
-    private static String readTextFile(File file) throws IOException {
-        StringBuilder content = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new FileReader(file));
-        String line;
-        while ((line = reader.readLine()) != null) {
-            content.append(line).append("\n");
-        }
-        reader.close();
+    // Decode dan cocokkan checksum setiap blok tanpa menulis file hasil
+    private static void verifyFile(Scanner scanner) {
+        System.out.println("\n--- VERIFIKASI FILE ---");
+        System.out.print("Masukkan nama file .huff yang akan diverifikasi: ");
+        String inputFileName = scanner.nextLine();
         
-        // Hapus newline terakhir jika ada
-        if (content.length() > 0 && content.charAt(content.length() - 1) == '\n') {
-            content.deleteCharAt(content.length() - 1);
+        File inputFile = new File(inputFileName);
+        if (!inputFile.exists()) {
+            System.out.println("File '" + inputFileName + "' tidak ditemukan!");
+            return;
         }
         
-        return content.toString();
+        try {
+            displayFileInfo("TERKOMPRESI", inputFile);
+            
+            System.out.println("\nMelakukan verifikasi...");
+            long startTime = System.currentTimeMillis();
+            AlgoHuffman verifier = new AlgoHuffman();
+            verifier.setThreads(threads);
+            long symbols = verifier.verify(inputFileName);
+            long verifyTime = System.currentTimeMillis() - startTime;
+            
+            System.out.println("\nWaktu verifikasi: " + verifyTime + " ms");
+            if (showMetrics) {
+                displayMetrics(verifier.getMetrics());
+            }
+            System.out.println("File utuh: " + symbols + " simbol, semua checksum blok cocok");
+            
+        } catch (IOException e) {
+            System.out.println("File rusak: " + e.getMessage());
+        }
     }
     
     private static void displayFileInfo(String type, File file) {
@@ -199,6 +396,19 @@ public class FileKompres {
         }
     }
     
+    private static void displayMetrics(CodecMetrics metrics) {
+        System.out.println("\n⏱ METRIK CODEC:");
+        for (CodecMetrics.Phase phase : CodecMetrics.Phase.values()) {
+            System.out.println("   " + phase + ": " + df.format(metrics.getNanos(phase) / 1e6) + " ms");
+        }
+        System.out.println("   Simbol/detik:   " + df.format(metrics.getSymbolsPerSecond()));
+        System.out.println("   Blok:           " + metrics.getBlocks() + " (" + metrics.getStoredBlocks() + " tersimpan, "
+                + metrics.getLzBlocks() + " LZ)");
+        System.out.println("   Tabel Kode:     " + metrics.getCodeTableBytes() + " bytes");
+        System.out.println("   Tabel Decoder:  " + metrics.getMaxDecoderTable() + " entri");
+        System.out.println("   Buffer Puncak:  " + formatFileSize(metrics.getPeakBufferBytes()));
+    }
+    
     private static String getFileExtension(File file) {
         String name = file.getName();
         int lastDot = name.lastIndexOf('.');
@@ -0,0 +1,144 @@
+// Histogram.java
+import java.util.concurrent.RecursiveTask;
+
+// Penghitung frekuensi simbol. Empat array hitungan disisipkan bergantian
+// (stripe) agar increment beruntun ke simbol yang sama tidak saling menunggu
+// store sebelumnya. Input besar dipecah ke beberapa core lalu digabung.
+final class Histogram {
+    private static final int STRIPES = 4;
+    private static final int LOW_SYMBOLS = 256;
+    // Di bawah AlgoHuffman.DEFAULT_BLOCK_SIZE agar blok penuh ukuran default
+    // sudah dihitung paralel (empat potongan)
+    static final int PARALLEL_THRESHOLD = 1 << 19;
+    private static final int SLICE = 1 << 18;
+
+    private Histogram() {
+    }
+
+    // Tambahkan frekuensi data[0..length) ke counts
+    static void count(byte[] data, int length, int[] counts, boolean parallel) {
+        if (parallel && length >= PARALLEL_THRESHOLD) {
+            add(counts, new ByteSlice(data, 0, length).invoke());
+        } else {
+            countRange(data, 0, length, counts);
+        }
+    }
+
+    static void count(char[] data, int length, int[] counts, boolean parallel) {
+        if (parallel && length >= PARALLEL_THRESHOLD) {
+            add(counts, new CharSlice(data, 0, length, counts.length).invoke());
+        } else {
+            countRange(data, 0, length, counts);
+        }
+    }
+
+    static void countRange(byte[] data, int from, int to, int[] counts) {
+        int[] stripes = new int[STRIPES * LOW_SYMBOLS];
+        int i = from;
+        for (int end = to - 3; i < end; i += 4) {
+            stripes[data[i] & 0xFF]++;
+            stripes[256 + (data[i + 1] & 0xFF)]++;
+            stripes[512 + (data[i + 2] & 0xFF)]++;
+            stripes[768 + (data[i + 3] & 0xFF)]++;
+        }
+        for (; i < to; i++) {
+            stripes[data[i] & 0xFF]++;
+        }
+        mergeStripes(stripes, counts);
+    }
+
+    // Char di bawah 256 (teks umum) memakai stripe; sisanya langsung ke counts
+    static void countRange(char[] data, int from, int to, int[] counts) {
+        int[] stripes = new int[STRIPES * LOW_SYMBOLS];
+        int i = from;
+        for (int end = to - 3; i < end; i += 4) {
+            char a = data[i];
+            char b = data[i + 1];
+            char c = data[i + 2];
+            char d = data[i + 3];
+            if (a < LOW_SYMBOLS) stripes[a]++; else counts[a]++;
+            if (b < LOW_SYMBOLS) stripes[256 + b]++; else counts[b]++;
+            if (c < LOW_SYMBOLS) stripes[512 + c]++; else counts[c]++;
+            if (d < LOW_SYMBOLS) stripes[768 + d]++; else counts[d]++;
+        }
+        for (; i < to; i++) {
+            char a = data[i];
+            if (a < LOW_SYMBOLS) stripes[a]++; else counts[a]++;
+        }
+        mergeStripes(stripes, counts);
+    }
+
+    private static void mergeStripes(int[] stripes, int[] counts) {
+        for (int s = 0; s < LOW_SYMBOLS; s++) {
+            counts[s] += stripes[s] + stripes[256 + s] + stripes[512 + s] + stripes[768 + s];
+        }
+    }
+
+    private static void add(int[] counts, int[] partial) {
+        for (int s = 0; s < partial.length; s++) {
+            counts[s] += partial[s];
+        }
+    }
+
+    // Dijalankan di pool milik worker saat ini, atau common pool jika dipanggil
+    // dari luar ForkJoinPool
+    private static class ByteSlice extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] data;
+        private final int from;
+        private final int to;
+
+        ByteSlice(byte[] data, int from, int to) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= SLICE) {
+                int[] counts = new int[LOW_SYMBOLS];
+                countRange(data, from, to, counts);
+                return counts;
+            }
+            int mid = (from + to) >>> 1;
+            ByteSlice right = new ByteSlice(data, mid, to);
+            right.fork();
+            int[] counts = new ByteSlice(data, from, mid).compute();
+            add(counts, right.join());
+            return counts;
+        }
+    }
+
+    private static class CharSlice extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final char[] data;
+        private final int from;
+        private final int to;
+        private final int alphabetSize;
+
+        CharSlice(char[] data, int from, int to, int alphabetSize) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.alphabetSize = alphabetSize;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= SLICE) {
+                int[] counts = new int[alphabetSize];
+                countRange(data, from, to, counts);
+                return counts;
+            }
+            int mid = (from + to) >>> 1;
+            CharSlice right = new CharSlice(data, mid, to, alphabetSize);
+            right.fork();
+            int[] counts = new CharSlice(data, from, mid, alphabetSize).compute();
+            add(counts, right.join());
+            return counts;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,333 @@
+// HuffmanDecoder.java
+import java.io.*;
+import java.util.*;
+
+// Decoder Huffman berbasis tabel: membaca bitstream langsung dari byte
+// lewat buffer 64-bit dan me-resolve PRIMARY_BITS bit per langkah.
+// Kode yang lebih panjang memakai tabel tingkat kedua; kode yang terlalu
+// panjang untuk tabel (pohon sangat miring) memakai pencarian biner.
+class HuffmanDecoder {
+    static final int PRIMARY_BITS = 11;
+    private static final int MAX_SECONDARY_BITS = 12;
+    private static final int MAX_CODE_LENGTH = 57;
+
+    // Entri > 0  : (simbol << 8) | panjang kode
+    // Entri < 0  : link ke subtabel, (offset << 5) | jumlah bit subtabel
+    // Entri == 0 : kode panjang, pakai jalur lambat
+    private final int[] table;
+    private final int maxLength;
+    private final int singleSymbol;
+
+    // Jalur lambat: kode rata kiri 64-bit, terurut (unsigned)
+    private final long[] slowCodes;
+    private final int[] slowEntries;
+
+    HuffmanDecoder(int[] symbols, long[] codes, int[] lengths, int count) throws IOException {
+        if (count == 1) {
+            // Hanya satu simbol: tidak ada bit yang perlu dibaca
+            table = null;
+            maxLength = 0;
+            singleSymbol = symbols[0];
+            slowCodes = new long[0];
+            slowEntries = new int[0];
+            return;
+        }
+        singleSymbol = -1;
+
+        int maxLen = 0;
+        for (int i = 0; i < count; i++) {
+            maxLen = Math.max(maxLen, lengths[i]);
+        }
+        if (maxLen > MAX_CODE_LENGTH) {
+            throw new IOException("Kode Huffman terlalu panjang: " + maxLen + " bit");
+        }
+        maxLength = maxLen;
+
+        // Panjang kode terbesar untuk setiap prefix primer
+        int primarySize = 1 << PRIMARY_BITS;
+        int[] prefixMax = new int[primarySize];
+        for (int i = 0; i < count; i++) {
+            int len = lengths[i];
+            if (len > PRIMARY_BITS) {
+                int prefix = (int) (codes[i] >>> (len - PRIMARY_BITS));
+                prefixMax[prefix] = Math.max(prefixMax[prefix], len);
+            }
+        }
+
+        // Alokasikan subtabel di belakang tabel primer
+        int[] prefixOffset = new int[primarySize];
+        int size = primarySize;
+        int slowCount = 0;
+        for (int p = 0; p < primarySize; p++) {
+            int subBits = prefixMax[p] - PRIMARY_BITS;
+            if (prefixMax[p] == 0) continue;
+            if (subBits <= MAX_SECONDARY_BITS) {
+                prefixOffset[p] = size;
+                size += 1 << subBits;
+            } else {
+                prefixOffset[p] = -1;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int len = lengths[i];
+            if (len > PRIMARY_BITS && prefixOffset[(int) (codes[i] >>> (len - PRIMARY_BITS))] < 0) {
+                slowCount++;
+            }
+        }
+
+        table = new int[size];
+        slowCodes = new long[slowCount];
+        slowEntries = new int[slowCount];
+        for (int p = 0; p < primarySize; p++) {
+            if (prefixMax[p] != 0 && prefixOffset[p] > 0) {
+                table[p] = Integer.MIN_VALUE | (prefixOffset[p] << 5) | (prefixMax[p] - PRIMARY_BITS);
+            }
+        }
+
+        int slowIndex = 0;
+        for (int i = 0; i < count; i++) {
+            int len = lengths[i];
+            long code = codes[i];
+            int entry = (symbols[i] << 8) | len;
+            if (len <= PRIMARY_BITS) {
+                int shift = PRIMARY_BITS - len;
+                int start = (int) (code << shift);
+                Arrays.fill(table, start, start + (1 << shift), entry);
+            } else {
+                int prefix = (int) (code >>> (len - PRIMARY_BITS));
+                int offset = prefixOffset[prefix];
+                if (offset < 0) {
+                    slowCodes[slowIndex] = code << (64 - len);
+                    slowEntries[slowIndex] = entry;
+                    slowIndex++;
+                } else {
+                    int subBits = prefixMax[prefix] - PRIMARY_BITS;
+                    int rest = len - PRIMARY_BITS;
+                    int low = (int) (code & ((1L << rest) - 1));
+                    int shift = subBits - rest;
+                    int start = offset + (low << shift);
+                    Arrays.fill(table, start, start + (1 << shift), entry);
+                }
+            }
+        }
+        sortSlowCodes();
+    }
+
+    private void sortSlowCodes() {
+        // Insertion sort cukup: jalur lambat hanya berisi sedikit kode
+        for (int i = 1; i < slowCodes.length; i++) {
+            long code = slowCodes[i];
+            int entry = slowEntries[i];
+            int j = i - 1;
+            while (j >= 0 && Long.compareUnsigned(slowCodes[j], code) > 0) {
+                slowCodes[j + 1] = slowCodes[j];
+                slowEntries[j + 1] = slowEntries[j];
+                j--;
+            }
+            slowCodes[j + 1] = code;
+            slowEntries[j + 1] = entry;
+        }
+    }
+
+    // Jumlah entri tabel (primer dan subtabel), untuk metrik
+    int tableSize() {
+        return table == null ? 0 : table.length;
+    }
+
+    // Decode tepat 'count' simbol dari src ke dst
+    void decode(byte[] src, int srcOff, int srcLen, char[] dst, int dstOff, int count) throws IOException {
+        if (singleSymbol >= 0) {
+            Arrays.fill(dst, dstOff, dstOff + count, (char) singleSymbol);
+            return;
+        }
+        decodeRun(src, srcOff, srcOff + srcLen, 0L, 0, dst, null, dstOff, dstOff + count);
+    }
+
+    // Varian byte untuk mode biner; simbol selalu < 256
+    void decode(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int count) throws IOException {
+        if (singleSymbol >= 0) {
+            Arrays.fill(dst, dstOff, dstOff + count, (byte) singleSymbol);
+            return;
+        }
+        decodeRun(src, srcOff, srcOff + srcLen, 0L, 0, null, dst, dstOff, dstOff + count);
+    }
+
+    // Blok multi-stream: simbol dibagi menjadi 'streams' segmen berurutan
+    // berukuran sama (segmen terakhir boleh lebih pendek), masing-masing
+    // dengan bitstream sendiri. Empat stream di-decode bersamaan dalam satu
+    // loop sehingga rantai dependensinya bisa berjalan paralel di CPU.
+    void decodeStreams(byte[] src, int[] srcOff, int[] srcLen, char[] dst, int count, int streams) throws IOException {
+        if (singleSymbol >= 0) {
+            Arrays.fill(dst, 0, count, (char) singleSymbol);
+            return;
+        }
+        decodeStreams(src, srcOff, srcLen, dst, null, count, streams);
+    }
+
+    void decodeStreams(byte[] src, int[] srcOff, int[] srcLen, byte[] dst, int count, int streams) throws IOException {
+        if (singleSymbol >= 0) {
+            Arrays.fill(dst, 0, count, (byte) singleSymbol);
+            return;
+        }
+        decodeStreams(src, srcOff, srcLen, null, dst, count, streams);
+    }
+
+    // Jalur decode bersama mode teks dan biner: hasil ditulis ke chars, atau
+    // ke bytes jika chars null. Pemeriksaan null tidak berubah selama loop,
+    // jadi JIT mengangkatnya keluar dari loop.
+    private void decodeStreams(byte[] src, int[] srcOff, int[] srcLen, char[] chars, byte[] bytes,
+                               int count, int streams) throws IOException {
+        int segment = (count + streams - 1) / streams;
+        int s = 0;
+        for (; s + 4 <= streams; s += 4) {
+            decode4(src, srcOff, srcLen, s, chars, bytes, segment, count);
+        }
+        for (; s < streams; s++) {
+            int from = Math.min(count, s * segment);
+            int to = Math.min(count, from + segment);
+            decodeRun(src, srcOff[s], srcOff[s] + srcLen[s], 0L, 0, chars, bytes, from, to);
+        }
+    }
+
+    private void decode4(byte[] src, int[] srcOff, int[] srcLen, int first, char[] chars, byte[] bytes,
+                         int segment, int count) throws IOException {
+        int maxLen = maxLength;
+        int p0 = srcOff[first], p1 = srcOff[first + 1], p2 = srcOff[first + 2], p3 = srcOff[first + 3];
+        int e0 = p0 + srcLen[first], e1 = p1 + srcLen[first + 1];
+        int e2 = p2 + srcLen[first + 2], e3 = p3 + srcLen[first + 3];
+        int o0 = Math.min(count, first * segment);
+        int o1 = Math.min(count, o0 + segment);
+        int o2 = Math.min(count, o1 + segment);
+        int o3 = Math.min(count, o2 + segment);
+        int end3 = Math.min(count, o3 + segment);
+        int common = end3 - o3;
+        long b0 = 0, b1 = 0, b2 = 0, b3 = 0;
+        int n0 = 0, n1 = 0, n2 = 0, n3 = 0;
+
+        for (int i = 0; i < common; i++) {
+            if (n0 < maxLen) {
+                while (n0 <= 56) {
+                    b0 |= (long) (p0 < e0 ? src[p0] & 0xFF : 0) << (56 - n0);
+                    p0++;
+                    n0 += 8;
+                }
+            }
+            if (n1 < maxLen) {
+                while (n1 <= 56) {
+                    b1 |= (long) (p1 < e1 ? src[p1] & 0xFF : 0) << (56 - n1);
+                    p1++;
+                    n1 += 8;
+                }
+            }
+            if (n2 < maxLen) {
+                while (n2 <= 56) {
+                    b2 |= (long) (p2 < e2 ? src[p2] & 0xFF : 0) << (56 - n2);
+                    p2++;
+                    n2 += 8;
+                }
+            }
+            if (n3 < maxLen) {
+                while (n3 <= 56) {
+                    b3 |= (long) (p3 < e3 ? src[p3] & 0xFF : 0) << (56 - n3);
+                    p3++;
+                    n3 += 8;
+                }
+            }
+
+            int t0 = lookup(b0);
+            int t1 = lookup(b1);
+            int t2 = lookup(b2);
+            int t3 = lookup(b3);
+            if (chars != null) {
+                chars[o0++] = (char) (t0 >>> 8);
+                chars[o1++] = (char) (t1 >>> 8);
+                chars[o2++] = (char) (t2 >>> 8);
+                chars[o3++] = (char) (t3 >>> 8);
+            } else {
+                bytes[o0++] = (byte) (t0 >>> 8);
+                bytes[o1++] = (byte) (t1 >>> 8);
+                bytes[o2++] = (byte) (t2 >>> 8);
+                bytes[o3++] = (byte) (t3 >>> 8);
+            }
+            b0 <<= t0 & 0xFF;
+            b1 <<= t1 & 0xFF;
+            b2 <<= t2 & 0xFF;
+            b3 <<= t3 & 0xFF;
+            n0 -= t0 & 0xFF;
+            n1 -= t1 & 0xFF;
+            n2 -= t2 & 0xFF;
+            n3 -= t3 & 0xFF;
+        }
+
+        // Sisa segmen yang lebih panjang dari segmen keempat
+        int base = Math.min(count, first * segment);
+        decodeRun(src, p0, e0, b0, n0, chars, bytes, o0, Math.min(count, base + segment));
+        decodeRun(src, p1, e1, b1, n1, chars, bytes, o1, Math.min(count, base + 2 * segment));
+        decodeRun(src, p2, e2, b2, n2, chars, bytes, o2, Math.min(count, base + 3 * segment));
+        decodeRun(src, p3, e3, b3, n3, chars, bytes, o3, end3);
+    }
+
+    // Lanjutkan decode satu stream dari state buffer (buf, bits, pos)
+    private void decodeRun(byte[] src, int pos, int end, long buf, int bits,
+                           char[] chars, byte[] bytes, int out, int outEnd) throws IOException {
+        int maxLen = maxLength;
+        while (out < outEnd) {
+            if (bits < maxLen) {
+                // Isi ulang buffer sampai minimal 57 bit tersedia
+                while (bits <= 56) {
+                    int b = pos < end ? src[pos] & 0xFF : 0;
+                    pos++;
+                    buf |= (long) b << (56 - bits);
+                    bits += 8;
+                }
+            }
+
+            int entry = lookup(buf);
+            int len = entry & 0xFF;
+            if (chars != null) {
+                chars[out++] = (char) (entry >>> 8);
+            } else {
+                bytes[out++] = (byte) (entry >>> 8);
+            }
+            buf <<= len;
+            bits -= len;
+        }
+
+        // Bit yang terpakai tidak boleh melebihi data yang tersedia
+        if ((long) pos * 8 - bits > (long) end * 8) {
+            throw new IOException("Data terkompresi rusak atau terpotong");
+        }
+    }
+
+    private int lookup(long buf) throws IOException {
+        int entry = table[(int) (buf >>> (64 - PRIMARY_BITS))];
+        if (entry < 0) {
+            int subBits = entry & 31;
+            int offset = (entry >>> 5) & 0x3FFFFFF;
+            entry = table[offset + (int) ((buf << PRIMARY_BITS) >>> (64 - subBits))];
+        }
+        if (entry == 0) {
+            entry = findSlow(buf);
+        }
+        return entry;
+    }
+
+    private int findSlow(long buf) throws IOException {
+        int lo = 0;
+        int hi = slowCodes.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(slowCodes[mid], buf) <= 0) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (found < 0) {
+            throw new IOException("Kode Huffman tidak valid");
+        }
+        return slowEntries[found];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+// HuffmanNode.java
+
+class HuffmanNode implements Comparable<HuffmanNode> {
+    char character;
+    int frequency;
+    HuffmanNode left, right;
+    
+    public HuffmanNode(char character, int frequency) {
+        this.character = character;
+        this.frequency = frequency;
+        this.left = null;
+        this.right = null;
+    }
+    
+    public HuffmanNode(char character, int frequency, HuffmanNode left, HuffmanNode right) {
+        this.character = character;
+        this.frequency = frequency;
+        this.left = left;
+        this.right = right;
+    }
+    
+    public boolean isLeaf() {
+        return left == null && right == null;
+    }
+    
+    @Override
+    public int compareTo(HuffmanNode other) {
+        return Integer.compare(this.frequency, other.frequency);
+    }
+}
\ No newline at end of file
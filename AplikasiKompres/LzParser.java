@@ -0,0 +1,274 @@
+// LzParser.java
+import java.util.Arrays;
+
+// Tahap LZ77 sebelum Huffman. Setiap posisi di-hash dari 3 simbol pertamanya;
+// head menyimpan posisi terakhir per hash dan prev menyambung posisi-posisi
+// sebelumnya dengan hash sama (hash chain). Blok diurai menjadi sekuens
+// (panjang literal, panjang match, jarak) ditambah literal yang tersisa,
+// yang lalu dikodekan AlgoHuffman sebagai stream Huffman terpisah.
+//
+// Nilai sekuens dikodekan seperti DEFLATE: kode kecil untuk nilai kecil, dan
+// untuk nilai besar kode menyatakan rentang 2 bit teratas ditambah bit
+// tambahan mentah. Semua kode muat di alfabet byte.
+final class LzParser {
+    static final int MIN_MATCH = 3;
+    static final int MAX_LEVEL = 9;
+    static final int LITERAL_LENGTHS = 0;
+    static final int MATCH_LENGTHS = 1;
+    static final int DISTANCES = 2;
+    static final int CODE_COUNT = 70;
+    private static final int DIRECT_CODES = 16;
+
+    private static final int WINDOW_SIZE = 1 << 16;
+    private static final int WINDOW_MASK = WINDOW_SIZE - 1;
+    private static final int HASH_BITS = 16;
+    // Match 3 simbol yang jauh biasanya lebih mahal dari tiga literal
+    private static final int TOO_FAR = 4096;
+
+    // Parameter per level mengikuti tabel zlib. MAX_CHAIN: kandidat yang
+    // ditelusuri; NICE_LENGTH: match sepanjang ini menghentikan pencarian;
+    // GOOD_LENGTH: jika match saat ini sudah sepanjang ini, pencarian lazy
+    // hanya menelusuri seperempat chain. MAX_LAZY: mulai LAZY_LEVEL, match
+    // yang lebih pendek dari ini ditunda satu posisi jika posisi berikutnya
+    // memberi match lebih panjang; di bawah LAZY_LEVEL, posisi di dalam match
+    // yang lebih panjang dari ini tidak dimasukkan ke hash chain.
+    private static final int[] GOOD_LENGTH = {0, 4, 4, 4, 4, 8, 8, 8, 32, 32};
+    private static final int[] MAX_LAZY = {0, 4, 5, 6, 4, 16, 16, 32, 128, 258};
+    private static final int[] NICE_LENGTH = {0, 8, 16, 32, 16, 32, 128, 128, 258, 258};
+    private static final int[] MAX_CHAIN = {0, 4, 8, 32, 16, 32, 128, 256, 1024, 4096};
+    private static final int LAZY_LEVEL = 4;
+
+    private final int goodLength;
+    private final int maxLazy;
+    private final int niceLength;
+    private final int maxChain;
+    private final boolean lazy;
+    private final int[] head;
+    private final int[] prev;
+
+    // Blok yang sedang diurai: salah satu dari bytes atau chars
+    private byte[] bytes;
+    private char[] chars;
+    private int length;
+    private int nextInsert;
+    private int matchDistance;
+
+    // Hasil: nilai sekuens (panjang match dikurangi MIN_MATCH, jarak dikurangi
+    // 1), kodenya per stream, dan literal berurutan
+    private final int[][] values;
+    private final byte[][] codes;
+    private int sequences;
+    private byte[] literalBytes;
+    private char[] literalChars;
+    private int literals;
+
+    LzParser(int level) {
+        if (level < 1 || level > MAX_LEVEL) {
+            throw new IllegalArgumentException("Level LZ harus 1-" + MAX_LEVEL + ": " + level);
+        }
+        this.goodLength = GOOD_LENGTH[level];
+        this.maxLazy = MAX_LAZY[level];
+        this.niceLength = NICE_LENGTH[level];
+        this.maxChain = MAX_CHAIN[level];
+        this.lazy = level >= LAZY_LEVEL;
+        this.head = new int[1 << HASH_BITS];
+        this.prev = new int[WINDOW_SIZE];
+        this.values = new int[3][0];
+        this.codes = new byte[3][0];
+        this.literalBytes = new byte[0];
+        this.literalChars = new char[0];
+    }
+
+    // Hasilnya jumlah sekuens; 0 berarti tidak ada match sama sekali
+    int parse(byte[] block, int length) {
+        bytes = block;
+        chars = null;
+        if (literalBytes.length < length) {
+            literalBytes = new byte[length];
+        }
+        return parse(length);
+    }
+
+    int parse(char[] block, int length) {
+        bytes = null;
+        chars = block;
+        if (literalChars.length < length) {
+            literalChars = new char[length];
+        }
+        return parse(length);
+    }
+
+    int sequenceCount() {
+        return sequences;
+    }
+
+    int literalCount() {
+        return literals;
+    }
+
+    int[] values(int stream) {
+        return values[stream];
+    }
+
+    byte[] codes(int stream) {
+        return codes[stream];
+    }
+
+    byte[] literalBytes() {
+        return literalBytes;
+    }
+
+    char[] literalChars() {
+        return literalChars;
+    }
+
+    private int parse(int length) {
+        this.length = length;
+        int maxSequences = length / MIN_MATCH + 1;
+        if (values[0].length < maxSequences) {
+            for (int s = 0; s < 3; s++) {
+                values[s] = new int[maxSequences];
+                codes[s] = new byte[maxSequences];
+            }
+        }
+        Arrays.fill(head, -1);
+        nextInsert = 0;
+        sequences = 0;
+        literals = 0;
+
+        int anchor = 0;
+        int pos = 0;
+        while (pos + MIN_MATCH <= length) {
+            int matchLength = findMatch(pos, maxChain);
+            if (matchLength == 0) {
+                pos++;
+                continue;
+            }
+            int distance = matchDistance;
+            while (lazy && matchLength < maxLazy && pos + 1 + MIN_MATCH <= length) {
+                int next = findMatch(pos + 1, matchLength >= goodLength ? maxChain >> 2 : maxChain);
+                if (next <= matchLength) break;
+                pos++;
+                matchLength = next;
+                distance = matchDistance;
+            }
+            if (!lazy && matchLength > maxLazy) {
+                insertUpTo(pos + 1);
+                nextInsert = pos + matchLength;
+            }
+            addLiterals(anchor, pos);
+            int i = sequences++;
+            setValue(LITERAL_LENGTHS, i, pos - anchor);
+            setValue(MATCH_LENGTHS, i, matchLength - MIN_MATCH);
+            setValue(DISTANCES, i, distance - 1);
+            pos += matchLength;
+            anchor = pos;
+        }
+        addLiterals(anchor, length);
+        return sequences;
+    }
+
+    private void setValue(int stream, int i, int value) {
+        values[stream][i] = value;
+        codes[stream][i] = (byte) code(value);
+    }
+
+    private void addLiterals(int from, int to) {
+        if (bytes != null) {
+            System.arraycopy(bytes, from, literalBytes, literals, to - from);
+        } else {
+            System.arraycopy(chars, from, literalChars, literals, to - from);
+        }
+        literals += to - from;
+    }
+
+    // Match terpanjang untuk pos di antara posisi sebelumnya dalam window.
+    // Hasilnya panjang match (0 jika tidak ada); jaraknya di matchDistance.
+    private int findMatch(int pos, int maxChain) {
+        insertUpTo(pos);
+        int candidate = head[hash(pos)];
+        int limit = pos - WINDOW_SIZE;
+        int maxLength = length - pos;
+        int best = MIN_MATCH - 1;
+        int bestDistance = 0;
+        int chain = maxChain;
+        while (candidate > limit && candidate >= 0 && chain-- > 0) {
+            // Dua simbol di ujung match terbaik dan simbol pertama dicek dulu:
+            // kandidat yang tidak bisa lebih panjang langsung dilewati
+            if (symbol(candidate + best) == symbol(pos + best)
+                    && symbol(candidate + best - 1) == symbol(pos + best - 1)
+                    && symbol(candidate) == symbol(pos)) {
+                int matchLength = matchLength(candidate, pos, maxLength);
+                if (matchLength > best) {
+                    best = matchLength;
+                    bestDistance = pos - candidate;
+                    if (matchLength >= niceLength || matchLength == maxLength) break;
+                }
+            }
+            candidate = prev[candidate & WINDOW_MASK];
+        }
+        if (best < MIN_MATCH || (best == MIN_MATCH && bestDistance > TOO_FAR)) {
+            return 0;
+        }
+        matchDistance = bestDistance;
+        return best;
+    }
+
+    // Masukkan posisi [nextInsert, target) ke hash chain
+    private void insertUpTo(int target) {
+        int end = Math.min(target, length - MIN_MATCH + 1);
+        for (int p = nextInsert; p < end; p++) {
+            int h = hash(p);
+            prev[p & WINDOW_MASK] = head[h];
+            head[h] = p;
+        }
+        nextInsert = Math.max(nextInsert, target);
+    }
+
+    private int hash(int pos) {
+        int key;
+        if (bytes != null) {
+            key = ((bytes[pos] & 0xFF) << 16) | ((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF);
+        } else {
+            key = (chars[pos] << 16) ^ (chars[pos + 1] << 8) ^ chars[pos + 2];
+        }
+        return (key * 0x9E3779B1) >>> (32 - HASH_BITS);
+    }
+
+    private int symbol(int pos) {
+        return bytes != null ? bytes[pos] & 0xFF : chars[pos];
+    }
+
+    private int matchLength(int a, int b, int maxLength) {
+        int n = 0;
+        if (bytes != null) {
+            byte[] data = bytes;
+            while (n < maxLength && data[a + n] == data[b + n]) n++;
+        } else {
+            char[] data = chars;
+            while (n < maxLength && data[a + n] == data[b + n]) n++;
+        }
+        return n;
+    }
+
+    // Nilai < DIRECT_CODES dikodekan langsung. Nilai lain dengan bit tertinggi
+    // ke-n: kode memuat n dan bit di bawahnya, sisa n - 1 bit jadi bit tambahan.
+    static int code(int value) {
+        if (value < DIRECT_CODES) {
+            return value;
+        }
+        int n = 31 - Integer.numberOfLeadingZeros(value);
+        return DIRECT_CODES + (n - 4) * 2 + ((value >>> (n - 1)) & 1);
+    }
+
+    static int extraBits(int code) {
+        return code < DIRECT_CODES ? 0 : (code - DIRECT_CODES) / 2 + 3;
+    }
+
+    static int baseValue(int code) {
+        if (code < DIRECT_CODES) {
+            return code;
+        }
+        return (2 | ((code - DIRECT_CODES) & 1)) << extraBits(code);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+// PackageMerge.java
+import java.util.*;
+
+// Panjang kode Huffman optimal dengan batas panjang maksimum (algoritma
+// package-merge). Dipakai jika pohon Huffman biasa menghasilkan kode yang
+// lebih panjang dari batas, misalnya pada distribusi yang sangat miring.
+final class PackageMerge {
+    private PackageMerge() {
+    }
+
+    // Isi lengths[i] untuk simbol dengan bobot weights[i] (semua > 0).
+    // maxLength harus cukup besar: 2^maxLength >= count.
+    static void computeLengths(int[] weights, int count, int maxLength, int[] lengths) {
+        Arrays.fill(lengths, 0, count, 0);
+        if (count == 1) {
+            return;
+        }
+        if (count > (1L << maxLength)) {
+            throw new IllegalArgumentException("Batas panjang kode terlalu kecil untuk " + count + " simbol");
+        }
+
+        // Urutkan simbol menurut bobot (stabil menurut indeks)
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) weights[i] << 20) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[count];
+        long[] leaves = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) (keys[i] & 0xFFFFF);
+            leaves[i] = keys[i] >>> 20;
+        }
+
+        // Setiap level: daun digabung dengan paket (pasangan item level sebelumnya).
+        // Cukup dicatat apakah item ke-j di level itu paket atau daun.
+        boolean[][] isPackage = new boolean[maxLength][];
+        isPackage[0] = new boolean[count];
+        long[] previous = leaves;
+        int previousLength = count;
+        for (int level = 1; level < maxLength; level++) {
+            int packages = previousLength / 2;
+            int length = count + packages;
+            long[] merged = new long[length];
+            boolean[] kinds = new boolean[length];
+            int leaf = 0;
+            int pkg = 0;
+            for (int j = 0; j < length; j++) {
+                long packageWeight = pkg < packages ? previous[2 * pkg] + previous[2 * pkg + 1] : Long.MAX_VALUE;
+                if (leaf < count && leaves[leaf] <= packageWeight) {
+                    merged[j] = leaves[leaf++];
+                } else {
+                    merged[j] = packageWeight;
+                    kinds[j] = true;
+                    pkg++;
+                }
+            }
+            isPackage[level] = kinds;
+            previous = merged;
+            previousLength = length;
+        }
+
+        // Ambil 2n-2 item termurah di level teratas. Item terpilih di setiap
+        // level selalu berupa prefix, dan daun di dalamnya adalah daun teringan.
+        int selected = 2 * count - 2;
+        for (int level = maxLength - 1; level >= 0 && selected > 0; level--) {
+            boolean[] kinds = isPackage[level];
+            int leafCount = 0;
+            for (int j = 0; j < selected; j++) {
+                if (!kinds[j]) leafCount++;
+            }
+            for (int i = 0; i < leafCount; i++) {
+                lengths[order[i]]++;
+            }
+            selected = 2 * (selected - leafCount);
+        }
+    }
+}
\ No newline at end of file
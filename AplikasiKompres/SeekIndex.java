@@ -0,0 +1,133 @@
+// SeekIndex.java
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+// Indeks akses acak di akhir file .huff: offset file setiap blok dan offset
+// simbol pertamanya. Entri terakhir menunjuk penanda akhir (BLOCK_END) dengan
+// total simbol, jadi blok ke-i memuat simbol [symbol(i), symbol(i + 1)).
+//
+// Footer: int jumlah entri, lalu per entri long offset blok dan long offset
+// simbol, lalu long posisi awal indeks dan int INDEX_MAGIC.
+final class SeekIndex {
+    private static final int INDEX_MAGIC = 0x48494458; // "HIDX"
+    private static final int TRAILER_SIZE = 12;
+
+    // Dalam mode paralel offset simbol dicatat saat blok dibaca dan offset
+    // blok saat hasilnya ditulis, keduanya berurutan sesuai blok
+    private long[] blockOffsets;
+    private long[] symbolOffsets;
+    private int blocks;
+    private int symbols;
+
+    SeekIndex() {
+        blockOffsets = new long[16];
+        symbolOffsets = new long[16];
+    }
+
+    private SeekIndex(long[] blockOffsets, long[] symbolOffsets) {
+        this.blockOffsets = blockOffsets;
+        this.symbolOffsets = symbolOffsets;
+        this.blocks = blockOffsets.length;
+        this.symbols = symbolOffsets.length;
+    }
+
+    void addBlock(long offset) {
+        if (blocks == blockOffsets.length) {
+            blockOffsets = Arrays.copyOf(blockOffsets, blocks * 2);
+        }
+        blockOffsets[blocks++] = offset;
+    }
+
+    void addSymbol(long offset) {
+        if (symbols == symbolOffsets.length) {
+            symbolOffsets = Arrays.copyOf(symbolOffsets, symbols * 2);
+        }
+        symbolOffsets[symbols++] = offset;
+    }
+
+    // Jumlah blok data (tanpa entri penanda akhir)
+    int blockCount() {
+        return blocks - 1;
+    }
+
+    long blockOffset(int block) {
+        return blockOffsets[block];
+    }
+
+    long symbolOffset(int block) {
+        return symbolOffsets[block];
+    }
+
+    long totalSymbols() {
+        return symbolOffsets[symbols - 1];
+    }
+
+    // Blok yang memuat simbol ke-offset (0 <= offset < totalSymbols)
+    int findBlock(long offset) {
+        int lo = 0;
+        int hi = blocks - 2;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (symbolOffsets[mid] <= offset) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    void write(DataOutputStream dos, long indexStart) throws IOException {
+        if (blocks != symbols) {
+            throw new IOException("Indeks blok tidak lengkap");
+        }
+        dos.writeInt(blocks);
+        for (int i = 0; i < blocks; i++) {
+            dos.writeLong(blockOffsets[i]);
+            dos.writeLong(symbolOffsets[i]);
+        }
+        dos.writeLong(indexStart);
+        dos.writeInt(INDEX_MAGIC);
+    }
+
+    static SeekIndex read(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < TRAILER_SIZE + 4) {
+            throw new IOException("Indeks file rusak");
+        }
+        ByteBuffer trailer = readAt(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+        long indexStart = trailer.getLong();
+        if (trailer.getInt() != INDEX_MAGIC || indexStart < 0 || indexStart > size - TRAILER_SIZE - 4) {
+            throw new IOException("Indeks file rusak");
+        }
+        ByteBuffer buffer = readAt(channel, indexStart, (int) (size - TRAILER_SIZE - indexStart));
+        int count = buffer.getInt();
+        if (count < 1 || buffer.remaining() != 16L * count) {
+            throw new IOException("Indeks file rusak");
+        }
+        long[] blockOffsets = new long[count];
+        long[] symbolOffsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            blockOffsets[i] = buffer.getLong();
+            symbolOffsets[i] = buffer.getLong();
+            if (i > 0 && (blockOffsets[i] <= blockOffsets[i - 1] || symbolOffsets[i] <= symbolOffsets[i - 1])) {
+                throw new IOException("Indeks file rusak");
+            }
+        }
+        return new SeekIndex(blockOffsets, symbolOffsets);
+    }
+
+    // Baca tepat length byte mulai dari position tanpa mengubah posisi channel
+    static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("File terpotong");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
\ No newline at end of file
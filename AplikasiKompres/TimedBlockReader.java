@@ -0,0 +1,99 @@
+// TimedBlockReader.java
+import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.*;
+
+// Pembaca blok untuk mode pipeline. Input (mis. stdin dari `tail -f`) dibaca
+// thread terpisah ke antrean berkapasitas tetap, sehingga blok bisa ditutup
+// saat penuh atau saat batas waktu sejak byte pertamanya habis, tanpa harus
+// menunggu read() yang sedang memblok.
+class TimedBlockReader implements Closeable {
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int QUEUE_CHUNKS = 16;
+    private static final byte[] EOF = new byte[0];
+
+    private final BlockingQueue<byte[]> queue;
+    private final long flushNanos;
+    private final Thread pump;
+    private volatile IOException failure;
+
+    // Sisa chunk yang belum masuk blok sebelumnya
+    private byte[] pending;
+    private int pendingOffset;
+    private boolean finished;
+
+    TimedBlockReader(InputStream in, long flushMillis) {
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+        this.flushNanos = TimeUnit.MILLISECONDS.toNanos(flushMillis);
+        this.pump = new Thread(() -> pump(in), "kompres-input");
+        this.pump.setDaemon(true);
+        this.pump.start();
+    }
+
+    private void pump(InputStream in) {
+        try {
+            while (true) {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int n = in.read(chunk);
+                if (n < 0) break;
+                if (n > 0) {
+                    queue.put(n == CHUNK_SIZE ? chunk : Arrays.copyOf(chunk, n));
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            return;
+        }
+        try {
+            queue.put(EOF);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Isi block sampai penuh, input habis, atau batas waktu terlewati sejak
+    // byte pertama blok ini. Hasil 0 berarti input sudah habis.
+    int read(byte[] block) throws IOException {
+        int length = 0;
+        long deadline = 0;
+        try {
+            while (length < block.length && !finished) {
+                byte[] chunk = pending;
+                if (chunk == null) {
+                    if (length == 0) {
+                        chunk = queue.take();
+                    } else {
+                        chunk = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (chunk == null) break;
+                    }
+                    if (chunk == EOF) {
+                        finished = true;
+                        break;
+                    }
+                    pendingOffset = 0;
+                }
+                if (length == 0) {
+                    deadline = System.nanoTime() + flushNanos;
+                }
+                int n = Math.min(block.length - length, chunk.length - pendingOffset);
+                System.arraycopy(chunk, pendingOffset, block, length, n);
+                length += n;
+                pendingOffset += n;
+                pending = pendingOffset < chunk.length ? chunk : null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Pembacaan input dibatalkan");
+        }
+        if (finished && failure != null) {
+            throw failure;
+        }
+        return length;
+    }
+
+    @Override
+    public void close() {
+        pump.interrupt();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package cls.grap;
+
+import java.util.Arrays;
+
+// Pembagian edge untuk menggambar hanya bagian graf yang terlihat, dibangun
+// sekali per versi graf. Edge pendek (panjang paling banyak maxShort()) yang
+// memotong suatu area pasti kedua ujungnya berada dalam jarak maxShort() dari
+// area itu, jadi cukup dicari lewat SpatialGrid dari simpul di sekitar area.
+// Sisanya, sekitar 1/LONG_FRACTION edge terpanjang, disimpan di daftar
+// terpisah dan diperiksa satu per satu.
+final class EdgeIndex {
+    private static final int LONG_FRACTION = 32;
+    // Batas panjang diambil dari sampel panjang edge, bukan dari semua edge
+    private static final int SAMPLE = 4096;
+
+    private final GraphEngine graph;
+    // Kuadrat panjang terbesar edge pendek
+    private final float limit;
+    private final float maxShort;
+    private final int[] longFrom;
+    private final int[] longTo;
+
+    EdgeIndex(GraphEngine graph) {
+        this.graph = graph;
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        boolean directed = graph.isDirected();
+        int n = graph.nodeCount();
+
+        // Kuadrat panjang setiap arc yang digambar (graf tak berarah: satu
+        // arc per edge); arc lain bernilai -1
+        float[] lengths = new float[targets.length];
+        int edges = 0;
+        for (int u = 0; u < n; u++) {
+            for (int i = offsets[u], end = offsets[u + 1]; i < end; i++) {
+                int v = targets[i];
+                if (!directed && v < u) {
+                    lengths[i] = -1;
+                } else {
+                    lengths[i] = squaredLength(u, v);
+                    edges++;
+                }
+            }
+        }
+
+        float[] sample = new float[Math.min(SAMPLE, edges)];
+        int step = Math.max(1, edges / Math.max(1, sample.length));
+        int taken = 0;
+        for (int i = 0, edge = 0; i < lengths.length && taken < sample.length; i++) {
+            if (lengths[i] >= 0 && edge++ % step == 0) {
+                sample[taken++] = lengths[i];
+            }
+        }
+        Arrays.sort(sample, 0, taken);
+        float limit = taken == 0 ? 0 : sample[Math.min(taken - 1, taken - taken / LONG_FRACTION)];
+        this.limit = limit;
+        // Dibulatkan ke atas agar pembulatan sqrt tidak memotong edge pendek
+        this.maxShort = (float) Math.sqrt(limit) + 1;
+
+        int count = 0;
+        for (float length : lengths) {
+            if (length > limit) count++;
+        }
+        longFrom = new int[count];
+        longTo = new int[count];
+        int k = 0;
+        for (int u = 0; u < n; u++) {
+            for (int i = offsets[u], end = offsets[u + 1]; i < end; i++) {
+                if (lengths[i] > limit) {
+                    longFrom[k] = u;
+                    longTo[k] = targets[i];
+                    k++;
+                }
+            }
+        }
+    }
+
+    // Jarak tambahan di sekitar area untuk mencari ujung edge pendek
+    float maxShort() {
+        return maxShort;
+    }
+
+    boolean isLong(int from, int to) {
+        return squaredLength(from, to) > limit;
+    }
+
+    int longCount() {
+        return longFrom.length;
+    }
+
+    int longFrom(int i) {
+        return longFrom[i];
+    }
+
+    int longTo(int i) {
+        return longTo[i];
+    }
+
+    private float squaredLength(int u, int v) {
+        float dx = graph.x(v) - graph.x(u);
+        float dy = graph.y(v) - graph.y(u);
+        return dx * dx + dy * dy;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,601 @@
+package cls.grap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+// Tata letak otomatis force-directed (model Fruchterman-Reingold dengan
+// langkah adaptif dan skema multilevel Yifan Hu). Tolakan antar simpul
+// dihitung dengan quadtree Barnes-Hut: kelompok simpul yang jauh diperlakukan
+// sebagai satu massa di pusat massanya, sehingga satu iterasi O(n log n).
+// Gaya per simpul dihitung paralel di ForkJoinPool; setiap task hanya menulis
+// gaya simpulnya sendiri.
+//
+// Graf dikasarkan berulang kali dengan menggabungkan pasangan simpul
+// bertetangga (matching) sampai tersisa sedikit simpul. Graf terkasar diatur
+// dari awal, lalu posisinya diturunkan ke tingkat yang lebih halus dan
+// diperhalus dengan beberapa iterasi saja, sehingga struktur global sudah
+// benar sebelum iterasi mahal di graf penuh dimulai.
+//
+// Posisi dan array CSR diambil dari GraphEngine di thread pemanggil start();
+// sesudahnya layout berjalan di thread sendiri tanpa menyentuh GraphEngine.
+// Posisi diterbitkan sebagai Snapshot (array baru) ke listener secara berkala.
+public class ForceLayout {
+    // Panjang edge alami dalam koordinat graf
+    private static final float NATURAL_LENGTH = 100;
+    private static final float REPULSION = 0.2f;
+    // Sel quadtree dianggap satu massa jika lebarnya / jarak < THETA
+    private static final float THETA = 1.2f;
+    private static final float COOLING = 0.9f;
+    private static final float TOLERANCE = 0.01f;
+    // Panjang alami membesar sqrt(7/4) per tingkat ke arah graf yang lebih kasar
+    private static final float LEVEL_SCALE = (float) Math.sqrt(7.0 / 4.0);
+    private static final int COARSEST_SIZE = 50;
+    // Berhenti mengasarkan jika matching hanya mengurangi sedikit simpul
+    private static final float MIN_REDUCTION = 0.75f;
+    private static final int COARSEST_ITERATIONS = 1000;
+    private static final int REFINE_ITERATIONS = 50;
+    private static final long PUBLISH_INTERVAL_NANOS = 40_000_000L;
+    private static final int GRAIN = 1024;
+    private static final int MAX_DEPTH = 48;
+
+    private final GraphEngine graph;
+    private final ForkJoinPool pool;
+    private final Consumer<Snapshot> listener;
+    private volatile boolean stopped = false;
+    private Thread thread;
+
+    // Snapshot posisi yang tidak berubah lagi setelah diterbitkan
+    public static final class Snapshot {
+        private final float[] x;
+        private final float[] y;
+        private final int iteration;
+        private final boolean finished;
+
+        private Snapshot(float[] x, float[] y, int iteration, boolean finished) {
+            this.x = x;
+            this.y = y;
+            this.iteration = iteration;
+            this.finished = finished;
+        }
+
+        public float[] x() {
+            return x;
+        }
+
+        public float[] y() {
+            return y;
+        }
+
+        public int iteration() {
+            return iteration;
+        }
+
+        // true untuk snapshot terakhir (konvergen atau dihentikan)
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+
+    // listener dipanggil dari thread layout
+    public ForceLayout(GraphEngine graph, Consumer<Snapshot> listener) {
+        this(graph, ForkJoinPool.commonPool(), listener);
+    }
+
+    public ForceLayout(GraphEngine graph, ForkJoinPool pool, Consumer<Snapshot> listener) {
+        this.graph = graph;
+        this.pool = pool;
+        this.listener = listener;
+    }
+
+    // Ambil salinan graf (di thread pemanggil) lalu jalankan layout di latar belakang
+    public synchronized void start() {
+        if (thread != null) {
+            throw new IllegalStateException("Layout sudah dijalankan");
+        }
+        Solver solver = new Solver();
+        thread = new Thread(solver::run, "force-layout");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Hentikan setelah iterasi yang sedang berjalan; snapshot terakhir tetap diterbitkan
+    public void stop() {
+        stopped = true;
+    }
+
+    public synchronized boolean isRunning() {
+        return thread != null && thread.isAlive();
+    }
+
+    // Jalankan sampai konvergen di thread pemanggil; untuk pemakaian tanpa GUI
+    public Snapshot runNow() {
+        Solver solver = new Solver();
+        return solver.run();
+    }
+
+    // Satu tingkat graf: adjacency simetris dalam CSR dan posisi simpulnya.
+    // coarse[v] = simpul induk v di tingkat berikutnya (yang lebih kasar).
+    private static final class Level {
+        final int n;
+        final int[] offsets;
+        final int[] targets;
+        final float[] x;
+        final float[] y;
+        int[] coarse;
+
+        Level(int n, int[] offsets, int[] targets) {
+            this.n = n;
+            this.offsets = offsets;
+            this.targets = targets;
+            this.x = new float[n];
+            this.y = new float[n];
+        }
+    }
+
+    private final class Solver {
+        private final List<Level> levels = new ArrayList<>();
+        private final Random random;
+        private final boolean placed;
+        private final float[] fx;
+        private final float[] fy;
+        private long lastPublish = System.nanoTime();
+
+        // Tingkat yang sedang diatur dan panjang alaminya
+        private Level level;
+        private float k;
+
+        // Quadtree dalam array. child[4 * c + q]: -1 kosong, >= 0 sel, <= -2
+        // simpul -(v + 2). mass/massX/massY: jumlah massa dan pusat massanya.
+        private int cells;
+        private int[] child;
+        private float[] centerX;
+        private float[] centerY;
+        private float[] half;
+        private float[] mass;
+        private float[] massX;
+        private float[] massY;
+
+        Solver() {
+            int n = graph.nodeCount();
+            this.random = new Random(n);
+            Level finest = symmetric();
+            boolean spread = false;
+            for (int v = 0; v < n; v++) {
+                finest.x[v] = graph.x(v);
+                finest.y[v] = graph.y(v);
+                spread |= finest.x[v] != finest.x[0] || finest.y[v] != finest.y[0];
+            }
+            this.placed = spread || n < 2;
+            levels.add(finest);
+            this.fx = new float[n];
+            this.fy = new float[n];
+            int capacity = 2 * n + 1;
+            this.child = new int[4 * capacity];
+            this.centerX = new float[capacity];
+            this.centerY = new float[capacity];
+            this.half = new float[capacity];
+            this.mass = new float[capacity];
+            this.massX = new float[capacity];
+            this.massY = new float[capacity];
+        }
+
+        // Adjacency tak berarah dari GraphEngine: graf berarah memakai arc
+        // keluar dan arc masuk sekaligus
+        private Level symmetric() {
+            int n = graph.nodeCount();
+            int[] offsets = graph.offsets();
+            int[] targets = graph.targets();
+            if (!graph.isDirected()) {
+                return new Level(n, offsets, targets);
+            }
+            int[] inOffsets = graph.inOffsets();
+            int[] inTargets = graph.inTargets();
+            int[] merged = new int[n + 1];
+            int[] neighbors = new int[targets.length + inTargets.length];
+            int p = 0;
+            for (int v = 0; v < n; v++) {
+                int length = offsets[v + 1] - offsets[v];
+                System.arraycopy(targets, offsets[v], neighbors, p, length);
+                p += length;
+                length = inOffsets[v + 1] - inOffsets[v];
+                System.arraycopy(inTargets, inOffsets[v], neighbors, p, length);
+                p += length;
+                merged[v + 1] = p;
+            }
+            return new Level(n, merged, neighbors);
+        }
+
+        // Gabungkan setiap simpul dengan tetangga berderajat terkecil yang
+        // belum digabung (urutan kunjungan acak). Simpul yang semua tetangganya
+        // sudah digabung ikut ke kelompok tetangga berderajat terkecil, dan
+        // simpul tanpa tetangga dipasangkan satu sama lain, agar pusat bintang
+        // dan simpul terisolasi tidak menghambat pengasaran. null jika
+        // pengurangannya kecil.
+        private Level coarsen(Level fine) {
+            int n = fine.n;
+            int[] order = new int[n];
+            for (int v = 0; v < n; v++) {
+                order[v] = v;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int t = order[i];
+                order[i] = order[j];
+                order[j] = t;
+            }
+            int[] coarse = new int[n];
+            Arrays.fill(coarse, -1);
+            int count = 0;
+            int isolated = -1;
+            for (int u : order) {
+                if (coarse[u] >= 0) {
+                    continue;
+                }
+                int best = -1;
+                int bestDegree = Integer.MAX_VALUE;
+                int joined = -1;
+                int joinedDegree = Integer.MAX_VALUE;
+                for (int i = fine.offsets[u], end = fine.offsets[u + 1]; i < end; i++) {
+                    int v = fine.targets[i];
+                    if (v == u) {
+                        continue;
+                    }
+                    int degree = fine.offsets[v + 1] - fine.offsets[v];
+                    if (coarse[v] < 0 && degree < bestDegree) {
+                        best = v;
+                        bestDegree = degree;
+                    } else if (coarse[v] >= 0 && degree < joinedDegree) {
+                        joined = v;
+                        joinedDegree = degree;
+                    }
+                }
+                if (best >= 0) {
+                    coarse[u] = count;
+                    coarse[best] = count++;
+                } else if (joined >= 0) {
+                    coarse[u] = coarse[joined];
+                } else if (isolated >= 0) {
+                    coarse[u] = coarse[isolated];
+                    isolated = -1;
+                } else {
+                    coarse[u] = count++;
+                    isolated = u;
+                }
+            }
+            if (count > MIN_REDUCTION * n) {
+                return null;
+            }
+
+            // Anggota setiap simpul kasar, lalu tetangganya tanpa duplikat
+            int[] memberStart = new int[count + 1];
+            for (int v = 0; v < n; v++) {
+                memberStart[coarse[v] + 1]++;
+            }
+            for (int c = 0; c < count; c++) {
+                memberStart[c + 1] += memberStart[c];
+            }
+            int[] members = new int[n];
+            int[] next = Arrays.copyOf(memberStart, count);
+            for (int v = 0; v < n; v++) {
+                members[next[coarse[v]]++] = v;
+            }
+            int[] marker = new int[count];
+            Arrays.fill(marker, -1);
+            int[] offsets = new int[count + 1];
+            int[] targets = new int[fine.targets.length];
+            int p = 0;
+            for (int c = 0; c < count; c++) {
+                for (int m = memberStart[c]; m < memberStart[c + 1]; m++) {
+                    int u = members[m];
+                    for (int i = fine.offsets[u], end = fine.offsets[u + 1]; i < end; i++) {
+                        int cv = coarse[fine.targets[i]];
+                        if (cv != c && marker[cv] != c) {
+                            marker[cv] = c;
+                            targets[p++] = cv;
+                        }
+                    }
+                }
+                offsets[c + 1] = p;
+            }
+            fine.coarse = coarse;
+            Level result = new Level(count, offsets, Arrays.copyOf(targets, p));
+            if (placed) {
+                // Posisi awal simpul kasar: rata-rata posisi anggotanya
+                for (int c = 0; c < count; c++) {
+                    int size = memberStart[c + 1] - memberStart[c];
+                    for (int m = memberStart[c]; m < memberStart[c + 1]; m++) {
+                        result.x[c] += fine.x[members[m]] / size;
+                        result.y[c] += fine.y[members[m]] / size;
+                    }
+                }
+            }
+            return result;
+        }
+
+        Snapshot run() {
+            for (Level next = levels.get(0); next.n > COARSEST_SIZE; ) {
+                next = coarsen(next);
+                if (next == null) {
+                    break;
+                }
+                levels.add(next);
+            }
+            int coarsest = levels.size() - 1;
+            // Tingkat terakhir yang posisinya sudah diatur
+            int active = coarsest;
+            int iteration = 0;
+            for (int current = coarsest; current >= 0 && !stopped; current--) {
+                active = current;
+                level = levels.get(current);
+                k = NATURAL_LENGTH * (float) Math.pow(LEVEL_SCALE, current);
+                if (current == coarsest) {
+                    // Tanpa posisi awal simpul disebar acak; sedikit jitter
+                    // mencegah dua simpul tepat berimpit
+                    float spread = (float) Math.sqrt(level.n) * k;
+                    for (int v = 0; v < level.n; v++) {
+                        if (!placed) {
+                            level.x[v] = random.nextFloat() * spread;
+                            level.y[v] = random.nextFloat() * spread;
+                        }
+                        level.x[v] += (random.nextFloat() - 0.5f) * 1e-2f * k;
+                        level.y[v] += (random.nextFloat() - 0.5f) * 1e-2f * k;
+                    }
+                } else {
+                    // Simpul mewarisi posisi induknya; pasangan hasil matching
+                    // dipisah sedikit agar gaya di antaranya terdefinisi
+                    Level parent = levels.get(current + 1);
+                    for (int v = 0; v < level.n; v++) {
+                        int c = level.coarse[v];
+                        level.x[v] = parent.x[c] + (random.nextFloat() - 0.5f) * 0.1f * k;
+                        level.y[v] = parent.y[c] + (random.nextFloat() - 0.5f) * 0.1f * k;
+                    }
+                }
+                int limit = current == coarsest ? COARSEST_ITERATIONS : REFINE_ITERATIONS;
+                iteration += refine(current, limit);
+            }
+            Snapshot last = snapshot(active, iteration, true);
+            listener.accept(last);
+            return last;
+        }
+
+        // Iterasi di satu tingkat sampai langkahnya kecil atau batas iterasi;
+        // hasilnya jumlah iterasi
+        private int refine(int index, int limit) {
+            int n = level.n;
+            float step = k;
+            double energy = Double.MAX_VALUE;
+            int progress = 0;
+            int iteration = 0;
+            while (iteration < limit && !stopped && n > 1) {
+                iteration++;
+                buildTree();
+                pool.invoke(new ForceTask(0, n));
+
+                // Pindahkan setiap simpul sejauh step searah gayanya
+                double newEnergy = 0;
+                for (int v = 0; v < n; v++) {
+                    float length = (float) Math.sqrt(fx[v] * fx[v] + fy[v] * fy[v]);
+                    if (length > 0) {
+                        level.x[v] += step * fx[v] / length;
+                        level.y[v] += step * fy[v] / length;
+                    }
+                    newEnergy += (double) length * length;
+                }
+
+                // Langkah adaptif: mengecil jika energi naik, membesar setelah
+                // beberapa iterasi yang terus turun
+                if (newEnergy < energy) {
+                    if (++progress >= 5) {
+                        progress = 0;
+                        step /= COOLING;
+                    }
+                } else {
+                    progress = 0;
+                    step *= COOLING;
+                }
+                energy = newEnergy;
+                if (step < TOLERANCE * k) {
+                    break;
+                }
+
+                long now = System.nanoTime();
+                if (now - lastPublish >= PUBLISH_INTERVAL_NANOS) {
+                    lastPublish = now;
+                    listener.accept(snapshot(index, iteration, false));
+                }
+            }
+            return iteration;
+        }
+
+        // Posisi graf penuh dari posisi tingkat index: setiap simpul mengambil
+        // posisi leluhurnya di tingkat itu
+        private Snapshot snapshot(int index, int iteration, boolean finished) {
+            Level source = levels.get(index);
+            Level finest = levels.get(0);
+            float[] x = new float[finest.n];
+            float[] y = new float[finest.n];
+            for (int v = 0; v < finest.n; v++) {
+                int u = v;
+                for (int l = 0; l < index; l++) {
+                    u = levels.get(l).coarse[u];
+                }
+                x[v] = source.x[u];
+                y[v] = source.y[u];
+            }
+            return new Snapshot(x, y, iteration, finished);
+        }
+
+        private void buildTree() {
+            float[] x = level.x;
+            float[] y = level.y;
+            float x0 = Float.MAX_VALUE;
+            float y0 = Float.MAX_VALUE;
+            float x1 = -Float.MAX_VALUE;
+            float y1 = -Float.MAX_VALUE;
+            for (int v = 0; v < level.n; v++) {
+                x0 = Math.min(x0, x[v]);
+                y0 = Math.min(y0, y[v]);
+                x1 = Math.max(x1, x[v]);
+                y1 = Math.max(y1, y[v]);
+            }
+            cells = 0;
+            newCell((x0 + x1) / 2, (y0 + y1) / 2, Math.max(x1 - x0, y1 - y0) / 2 + 1);
+            for (int v = 0; v < level.n; v++) {
+                insert(v, x[v], y[v]);
+            }
+        }
+
+        private int newCell(float cx, float cy, float h) {
+            if (cells == half.length) {
+                int capacity = cells * 2;
+                child = Arrays.copyOf(child, 4 * capacity);
+                centerX = Arrays.copyOf(centerX, capacity);
+                centerY = Arrays.copyOf(centerY, capacity);
+                half = Arrays.copyOf(half, capacity);
+                mass = Arrays.copyOf(mass, capacity);
+                massX = Arrays.copyOf(massX, capacity);
+                massY = Arrays.copyOf(massY, capacity);
+            }
+            int c = cells++;
+            Arrays.fill(child, 4 * c, 4 * c + 4, -1);
+            centerX[c] = cx;
+            centerY[c] = cy;
+            half[c] = h;
+            mass[c] = 0;
+            massX[c] = 0;
+            massY[c] = 0;
+            return c;
+        }
+
+        // Turun dari akar sambil menambah massa; daun berisi simpul lain
+        // dipecah sampai keduanya berada di kuadran berbeda. Simpul yang
+        // berimpit setelah MAX_DEPTH tingkat cukup ditambahkan ke massa sel.
+        private void insert(int v, float px, float py) {
+            int cell = 0;
+            for (int depth = 0; ; depth++) {
+                addMass(cell, px, py);
+                int slot = 4 * cell + quadrant(cell, px, py);
+                int c = child[slot];
+                if (c == -1) {
+                    child[slot] = -(v + 2);
+                    return;
+                }
+                if (c >= 0) {
+                    cell = c;
+                    continue;
+                }
+                if (depth >= MAX_DEPTH) {
+                    return;
+                }
+                int other = -c - 2;
+                float ox = level.x[other];
+                float oy = level.y[other];
+                int q = slot - 4 * cell;
+                float h = half[cell] / 2;
+                int split = newCell(centerX[cell] + ((q & 1) != 0 ? h : -h), centerY[cell] + ((q & 2) != 0 ? h : -h), h);
+                child[slot] = split;
+                addMass(split, ox, oy);
+                child[4 * split + quadrant(split, ox, oy)] = c;
+                cell = split;
+            }
+        }
+
+        private void addMass(int cell, float px, float py) {
+            mass[cell] += 1;
+            massX[cell] += px;
+            massY[cell] += py;
+        }
+
+        private int quadrant(int cell, float px, float py) {
+            return (px >= centerX[cell] ? 1 : 0) | (py >= centerY[cell] ? 2 : 0);
+        }
+
+        // Gaya total simpul v: tolakan dari quadtree dan tarikan dari edge
+        private void computeForce(int v, int[] stack) {
+            float[] x = level.x;
+            float[] y = level.y;
+            float px = x[v];
+            float py = y[v];
+            float k2 = REPULSION * k * k;
+            float sumX = 0;
+            float sumY = 0;
+
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int cell = stack[--top];
+                float cx = massX[cell] / mass[cell];
+                float cy = massY[cell] / mass[cell];
+                float dx = px - cx;
+                float dy = py - cy;
+                float d2 = dx * dx + dy * dy;
+                boolean inside = Math.abs(px - centerX[cell]) <= half[cell] && Math.abs(py - centerY[cell]) <= half[cell];
+                if (!inside && 4 * half[cell] * half[cell] < THETA * THETA * d2) {
+                    // Sel cukup jauh: satu massa di pusat massanya
+                    float f = k2 * mass[cell] / d2;
+                    sumX += dx * f;
+                    sumY += dy * f;
+                    continue;
+                }
+                for (int q = 4 * cell, end = q + 4; q < end; q++) {
+                    int c = child[q];
+                    if (c >= 0) {
+                        stack[top++] = c;
+                    } else if (c != -1 && c != -(v + 2)) {
+                        int u = -c - 2;
+                        float ux = px - x[u];
+                        float uy = py - y[u];
+                        float u2 = ux * ux + uy * uy;
+                        if (u2 > 0) {
+                            sumX += ux * k2 / u2;
+                            sumY += uy * k2 / u2;
+                        }
+                    }
+                }
+            }
+
+            // Tarikan d^2 / k sepanjang edge
+            for (int i = level.offsets[v], end = level.offsets[v + 1]; i < end; i++) {
+                int u = level.targets[i];
+                float dx = x[u] - px;
+                float dy = y[u] - py;
+                float d = (float) Math.sqrt(dx * dx + dy * dy);
+                sumX += dx * d / k;
+                sumY += dy * d / k;
+            }
+            fx[v] = sumX;
+            fy[v] = sumY;
+        }
+
+        private final class ForceTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            ForceTask(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from > GRAIN) {
+                    int mid = (from + to) >>> 1;
+                    invokeAll(new ForceTask(from, mid), new ForceTask(mid, to));
+                    return;
+                }
+                // Stack traversal quadtree: paling banyak 3 sel per tingkat + 4
+                int[] stack = new int[3 * (MAX_DEPTH + 2) + 4];
+                for (int v = from; v < to; v++) {
+                    computeForce(v, stack);
+                }
+            }
+        }
+    }
+}
\ No newline at end of file
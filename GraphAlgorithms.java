@@ -0,0 +1,242 @@
+package cls.grap;
+
+import java.util.Arrays;
+
+// Algoritma traversal di atas array CSR GraphEngine. Pada DFS, rekursi diganti
+// stack eksplisit berisi node dan posisi arc berikutnya (cursor) dalam array int,
+// sehingga rantai sepanjang apa pun tidak membuat stack overflow dan setiap
+// arc diperiksa sekali (waktu linear). Urutan kunjungan sama dengan DFS
+// rekursif yang memeriksa tetangga dari kecil ke besar.
+//
+// Graf tidak boleh diubah selama algoritma berjalan.
+public final class GraphAlgorithms {
+    private GraphAlgorithms() {
+    }
+
+    // Node yang terjangkau dari source dalam urutan preorder DFS
+    public static int[] depthFirstOrder(GraphEngine graph, int source) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int n = graph.nodeCount();
+        checkNode(source, n);
+        boolean[] visited = new boolean[n];
+        int[] order = new int[n];
+        int count = 0;
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int top = 0;
+
+        visited[source] = true;
+        order[count++] = source;
+        stack[top] = source;
+        cursor[top++] = offsets[source];
+        while (top > 0) {
+            int v = stack[top - 1];
+            int i = cursor[top - 1];
+            if (i == offsets[v + 1]) {
+                top--;
+                continue;
+            }
+            cursor[top - 1] = i + 1;
+            int w = targets[i];
+            if (!visited[w]) {
+                visited[w] = true;
+                order[count++] = w;
+                stack[top] = w;
+                cursor[top++] = offsets[w];
+            }
+        }
+        return Arrays.copyOf(order, count);
+    }
+
+    // Rekam DFS dari source: VISIT saat node pertama dicapai dan EDGE untuk
+    // setiap arc yang diperiksa, dalam urutan yang sama dengan depthFirstOrder
+    public static TraversalTrace recordDfs(GraphEngine graph, int source) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int n = graph.nodeCount();
+        checkNode(source, n);
+        TraversalTrace trace = new TraversalTrace();
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int top = 0;
+
+        visited[source] = true;
+        trace.add(TraversalTrace.VISIT, source, -1);
+        stack[top] = source;
+        cursor[top++] = offsets[source];
+        while (top > 0) {
+            int v = stack[top - 1];
+            int i = cursor[top - 1];
+            if (i == offsets[v + 1]) {
+                top--;
+                continue;
+            }
+            cursor[top - 1] = i + 1;
+            int w = targets[i];
+            trace.add(TraversalTrace.EDGE, w, v);
+            if (!visited[w]) {
+                visited[w] = true;
+                trace.add(TraversalTrace.VISIT, w, v);
+                stack[top] = w;
+                cursor[top++] = offsets[w];
+            }
+        }
+        return trace;
+    }
+
+    // Rekam BFS dari source: ENQUEUE saat node ditemukan, VISIT saat node
+    // diambil dari antrian, dan EDGE untuk setiap arc yang diperiksa
+    public static TraversalTrace recordBfs(GraphEngine graph, int source) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int n = graph.nodeCount();
+        checkNode(source, n);
+        TraversalTrace trace = new TraversalTrace();
+        boolean[] discovered = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+
+        discovered[source] = true;
+        trace.add(TraversalTrace.ENQUEUE, source, -1);
+        queue[tail++] = source;
+        int[] parent = new int[n];
+        parent[source] = -1;
+        while (head < tail) {
+            int v = queue[head++];
+            trace.add(TraversalTrace.VISIT, v, parent[v]);
+            for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+                int w = targets[i];
+                trace.add(TraversalTrace.EDGE, w, v);
+                if (!discovered[w]) {
+                    discovered[w] = true;
+                    parent[w] = v;
+                    trace.add(TraversalTrace.ENQUEUE, w, v);
+                    queue[tail++] = w;
+                }
+            }
+        }
+        return trace;
+    }
+
+    // Komponen terhubung kuat dengan algoritma Tarjan. component[v] diisi ID
+    // komponen v; ID diberikan dalam urutan topologis terbalik dari graf
+    // kondensasi (komponen tanpa arc keluar ke komponen lain mendapat ID
+    // terkecil). Hasilnya jumlah komponen.
+    public static int stronglyConnectedComponents(GraphEngine graph, int[] component) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int n = graph.nodeCount();
+        if (component.length < n) {
+            throw new IllegalArgumentException("Array komponen terlalu kecil: " + component.length + " < " + n);
+        }
+        // index[v] = urutan kunjungan + 1 (0 = belum dikunjungi)
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] members = new int[n];
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        Arrays.fill(component, 0, n, -1);
+        int counter = 0;
+        int count = 0;
+        int size = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != 0) {
+                continue;
+            }
+            int top = 0;
+            index[root] = low[root] = ++counter;
+            members[size++] = root;
+            stack[top] = root;
+            cursor[top++] = offsets[root];
+            while (top > 0) {
+                int v = stack[top - 1];
+                int i = cursor[top - 1];
+                if (i < offsets[v + 1]) {
+                    cursor[top - 1] = i + 1;
+                    int w = targets[i];
+                    if (index[w] == 0) {
+                        index[w] = low[w] = ++counter;
+                        members[size++] = w;
+                        stack[top] = w;
+                        cursor[top++] = offsets[w];
+                    } else if (component[w] < 0 && index[w] < low[v]) {
+                        // w masih di stack komponen: arc balik atau silang
+                        low[v] = index[w];
+                    }
+                    continue;
+                }
+                top--;
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = members[--size];
+                        component[w] = count;
+                    } while (w != v);
+                    count++;
+                }
+                if (top > 0) {
+                    int parent = stack[top - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+            }
+        }
+        return count;
+    }
+
+    // Urutan topologis (setiap arc u -> v: u sebelum v) dari postorder DFS
+    // yang dibalik. Graf harus berarah dan tanpa siklus.
+    public static int[] topologicalOrder(GraphEngine graph) {
+        if (!graph.isDirected()) {
+            throw new IllegalArgumentException("Urutan topologis hanya untuk graf berarah");
+        }
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int n = graph.nodeCount();
+        // 0 = belum dikunjungi, 1 = di stack DFS, 2 = selesai
+        byte[] state = new byte[n];
+        int[] order = new int[n];
+        int position = n;
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+
+        for (int root = 0; root < n; root++) {
+            if (state[root] != 0) {
+                continue;
+            }
+            int top = 0;
+            state[root] = 1;
+            stack[top] = root;
+            cursor[top++] = offsets[root];
+            while (top > 0) {
+                int v = stack[top - 1];
+                int i = cursor[top - 1];
+                if (i < offsets[v + 1]) {
+                    cursor[top - 1] = i + 1;
+                    int w = targets[i];
+                    if (state[w] == 0) {
+                        state[w] = 1;
+                        stack[top] = w;
+                        cursor[top++] = offsets[w];
+                    } else if (state[w] == 1) {
+                        throw new IllegalStateException("Graf memiliki siklus melalui simpul " + graph.name(w));
+                    }
+                    continue;
+                }
+                top--;
+                state[v] = 2;
+                order[--position] = v;
+            }
+        }
+        return order;
+    }
+
+    private static void checkNode(int node, int n) {
+        if (node < 0 || node >= n) {
+            throw new IndexOutOfBoundsException("ID simpul tidak valid: " + node);
+        }
+    }
+}
\ No newline at end of file
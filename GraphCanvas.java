@@ -0,0 +1,291 @@
+package cls.grap;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Dasar panel graf: pan (seret mouse) dan zoom (roda mouse) di sekitar kursor,
+// indeks SpatialGrid untuk klik dan untuk menggambar hanya simpul dan edge
+// yang terlihat, serta edge yang digambar sekali ke BufferedImage dan dipakai
+// ulang selama graf, zoom, dan ukuran panel tidak berubah. Saat diseret,
+// gambar edge hanya digeser; gambar baru dibuat ketika seretan selesai.
+//
+// Koordinat layar = koordinat graf * zoom + pan.
+public abstract class GraphCanvas extends JPanel {
+    private static final long serialVersionUID = 1L;
+    protected static final int RADIUS = 20;
+    private static final double MIN_ZOOM = 0.01;
+    private static final double MAX_ZOOM = 20;
+
+    protected final GraphEngine graph;
+    private double zoom = 1;
+    private double panX = 0;
+    private double panY = 0;
+
+    private SpatialGrid grid;
+    private int gridVersion = -1;
+    private EdgeIndex edgeIndex;
+    private int edgeIndexVersion = -1;
+
+    private BufferedImage edgeLayer;
+    private int layerVersion = -1;
+    private double layerZoom;
+    private double layerPanX;
+    private double layerPanY;
+
+    private Point dragStart = null;
+
+    // Layout otomatis yang sedang berjalan dan snapshot terbaru yang belum
+    // diterapkan; snapshot yang datang lebih cepat dari EDT saling menimpa
+    private volatile ForceLayout layout;
+    private final AtomicReference<ForceLayout.Snapshot> pendingSnapshot = new AtomicReference<>();
+
+    protected GraphCanvas(GraphEngine graph) {
+        this.graph = graph;
+        setBackground(Color.WHITE);
+
+        MouseAdapter navigasi = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragStart = e.getPoint();
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (dragStart != null) {
+                    panX += e.getX() - dragStart.x;
+                    panY += e.getY() - dragStart.y;
+                    dragStart = e.getPoint();
+                    repaint();
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                dragStart = null;
+                repaint();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                double factor = Math.pow(1.1, -e.getPreciseWheelRotation());
+                double newZoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom * factor));
+                factor = newZoom / zoom;
+                // Titik graf di bawah kursor tetap di bawah kursor
+                panX = e.getX() - (e.getX() - panX) * factor;
+                panY = e.getY() - (e.getY() - panY) * factor;
+                zoom = newZoom;
+                repaint();
+            }
+        };
+        addMouseListener(navigasi);
+        addMouseMotionListener(navigasi);
+        addMouseWheelListener(navigasi);
+    }
+
+    // Jalankan tata letak otomatis di latar belakang. Posisi diterapkan di EDT
+    // setiap ada snapshot baru, dan tampilan disesuaikan saat layout selesai.
+    public void startLayout() {
+        if (layout != null) {
+            layout.stop();
+        }
+        ForceLayout[] baru = new ForceLayout[1];
+        baru[0] = new ForceLayout(graph, snapshot -> {
+            if (layout == baru[0] && pendingSnapshot.getAndSet(snapshot) == null) {
+                SwingUtilities.invokeLater(this::applySnapshot);
+            }
+        });
+        layout = baru[0];
+        layout.start();
+    }
+
+    public void stopLayout() {
+        if (layout != null) {
+            layout.stop();
+        }
+    }
+
+    private void applySnapshot() {
+        ForceLayout.Snapshot snapshot = pendingSnapshot.getAndSet(null);
+        if (snapshot == null) {
+            return;
+        }
+        graph.setPositions(snapshot.x(), snapshot.y());
+        if (snapshot.isFinished()) {
+            fitView();
+        }
+        repaint();
+    }
+
+    // Atur zoom dan pan agar semua simpul terlihat
+    public void fitView() {
+        int n = graph.nodeCount();
+        if (n == 0 || getWidth() == 0 || getHeight() == 0) {
+            return;
+        }
+        float x0 = Float.MAX_VALUE;
+        float y0 = Float.MAX_VALUE;
+        float x1 = -Float.MAX_VALUE;
+        float y1 = -Float.MAX_VALUE;
+        for (int v = 0; v < n; v++) {
+            x0 = Math.min(x0, graph.x(v));
+            y0 = Math.min(y0, graph.y(v));
+            x1 = Math.max(x1, graph.x(v));
+            y1 = Math.max(y1, graph.y(v));
+        }
+        double width = x1 - x0 + 4 * RADIUS;
+        double height = y1 - y0 + 4 * RADIUS;
+        zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, Math.min(getWidth() / width, getHeight() / height)));
+        panX = getWidth() / 2.0 - (x0 + x1) / 2.0 * zoom;
+        panY = getHeight() / 2.0 - (y0 + y1) / 2.0 * zoom;
+        repaint();
+    }
+
+    // Simpul di bawah titik layar, atau -1
+    protected int nodeAt(Point point) {
+        return grid().nearest((float) ((point.x - panX) / zoom), (float) ((point.y - panY) / zoom), RADIUS);
+    }
+
+    // Gambar satu arc dalam koordinat graf. Pada graf tak berarah dipanggil
+    // sekali per edge.
+    protected abstract void drawEdge(Graphics2D g2, int from, int to);
+
+    // Warna isi simpul
+    protected Color nodeColor(int node) {
+        return new Color(100, 150, 255);
+    }
+
+    // Gambar tambahan di atas edge dan di bawah simpul, dalam koordinat graf
+    protected void drawOverlay(Graphics2D g2) {
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            // Gambar edge dari cache; saat diseret cukup digeser
+            boolean dragging = dragStart != null;
+            if (edgeLayer == null || edgeLayer.getWidth() != getWidth() || edgeLayer.getHeight() != getHeight()
+                    || layerVersion != graph.version() || layerZoom != zoom
+                    || (!dragging && (layerPanX != panX || layerPanY != panY))) {
+                renderEdgeLayer();
+            }
+            g2.drawImage(edgeLayer, (int) Math.round(panX - layerPanX), (int) Math.round(panY - layerPanY), null);
+
+            g2.translate(panX, panY);
+            g2.scale(zoom, zoom);
+            g2.setStroke(new BasicStroke(2));
+            drawOverlay(g2);
+
+            // Gambar simpul yang terlihat saja
+            Rectangle clip = g.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            float x0 = (float) ((clip.x - panX) / zoom) - RADIUS;
+            float y0 = (float) ((clip.y - panY) / zoom) - RADIUS;
+            float x1 = (float) ((clip.x + clip.width - panX) / zoom) + RADIUS;
+            float y1 = (float) ((clip.y + clip.height - panY) / zoom) + RADIUS;
+            boolean detail = RADIUS * zoom >= 4;
+            grid().forEachIn(x0, y0, x1, y1, node -> drawNode(g2, node, detail));
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    // Simpul yang sangat kecil di layar digambar sebagai titik tanpa label
+    private void drawNode(Graphics2D g2, int node, boolean detail) {
+        int x = (int) graph.x(node);
+        int y = (int) graph.y(node);
+        g2.setColor(nodeColor(node));
+        if (!detail) {
+            g2.fillRect(x - RADIUS, y - RADIUS, 2 * RADIUS, 2 * RADIUS);
+            return;
+        }
+        g2.fillOval(x - RADIUS, y - RADIUS, 2 * RADIUS, 2 * RADIUS);
+        g2.setColor(Color.BLACK);
+        g2.drawOval(x - RADIUS, y - RADIUS, 2 * RADIUS, 2 * RADIUS);
+        g2.drawString(graph.name(node), x - 5, y + 5);
+    }
+
+    // Gambar edge yang memotong area panel ke edgeLayer. Edge pendek diambil
+    // dari simpul di sekitar area lewat SpatialGrid, edge panjang dari daftar
+    // EdgeIndex, jadi biaya zoom dan pan sebanding dengan bagian graf yang
+    // terlihat, bukan dengan seluruh graf. Edge yang kotak pembatasnya di luar
+    // area dilewati tanpa digambar.
+    private void renderEdgeLayer() {
+        int width = Math.max(1, getWidth());
+        int height = Math.max(1, getHeight());
+        if (edgeLayer == null || edgeLayer.getWidth() != width || edgeLayer.getHeight() != height) {
+            edgeLayer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+        Graphics2D g2 = edgeLayer.createGraphics();
+        try {
+            g2.setComposite(AlphaComposite.Clear);
+            g2.fillRect(0, 0, width, height);
+            g2.setComposite(AlphaComposite.SrcOver);
+            g2.setTransform(new AffineTransform(zoom, 0, 0, zoom, panX, panY));
+            g2.setStroke(new BasicStroke(2));
+            g2.setColor(Color.GRAY);
+
+            float x0 = (float) (-panX / zoom);
+            float y0 = (float) (-panY / zoom);
+            float x1 = (float) ((width - panX) / zoom);
+            float y1 = (float) ((height - panY) / zoom);
+            EdgeIndex edges = edgeIndex();
+            int[] offsets = graph.offsets();
+            int[] targets = graph.targets();
+            boolean directed = graph.isDirected();
+            float reach = edges.maxShort();
+            grid().forEachIn(x0 - reach, y0 - reach, x1 + reach, y1 + reach, u -> {
+                for (int i = offsets[u], end = offsets[u + 1]; i < end; i++) {
+                    int v = targets[i];
+                    if ((!directed && v < u) || edges.isLong(u, v)) {
+                        continue;
+                    }
+                    drawIfVisible(g2, u, v, x0, y0, x1, y1);
+                }
+            });
+            for (int i = 0, count = edges.longCount(); i < count; i++) {
+                drawIfVisible(g2, edges.longFrom(i), edges.longTo(i), x0, y0, x1, y1);
+            }
+        } finally {
+            g2.dispose();
+        }
+        layerVersion = graph.version();
+        layerZoom = zoom;
+        layerPanX = panX;
+        layerPanY = panY;
+    }
+
+    private void drawIfVisible(Graphics2D g2, int u, int v, float x0, float y0, float x1, float y1) {
+        float ux = graph.x(u);
+        float uy = graph.y(u);
+        float vx = graph.x(v);
+        float vy = graph.y(v);
+        if (Math.max(ux, vx) < x0 || Math.min(ux, vx) > x1 || Math.max(uy, vy) < y0 || Math.min(uy, vy) > y1) {
+            return;
+        }
+        drawEdge(g2, u, v);
+    }
+
+    private EdgeIndex edgeIndex() {
+        if (edgeIndex == null || edgeIndexVersion != graph.version()) {
+            edgeIndex = new EdgeIndex(graph);
+            edgeIndexVersion = graph.version();
+        }
+        return edgeIndex;
+    }
+
+    private SpatialGrid grid() {
+        if (grid == null || gridVersion != graph.version()) {
+            grid = new SpatialGrid(graph, 2 * RADIUS);
+            gridVersion = graph.version();
+        }
+        return grid;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,315 @@
+package cls.grap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Inti graf tanpa GUI: simpul ber-ID int (lihat NodeDictionary), koordinat
+// dalam array float, dan adjacency dalam format CSR (compressed sparse row):
+// tetangga simpul v ada di targets[offsets[v] .. offsets[v + 1]), terurut naik.
+//
+// Edge baru masuk ke buffer delta (rantai per simpul dalam array int) dan
+// digabung ke CSR oleh compact(), otomatis jika delta sudah cukup besar.
+// Graf tak berarah menyimpan setiap edge sebagai dua arc.
+public class GraphEngine {
+    private static final int MIN_DELTA_COMPACT = 1 << 16;
+
+    private final boolean directed;
+    private final NodeDictionary dictionary = new NodeDictionary();
+    private float[] x = new float[16];
+    private float[] y = new float[16];
+    // Bertambah setiap kali simpul, posisi, atau edge berubah
+    private int version = 0;
+
+    // CSR untuk csrNodes simpul pertama (simpul yang lebih baru berderajat 0)
+    private int csrNodes = 0;
+    private int[] offsets = new int[1];
+    private int[] targets = new int[0];
+
+    // CSR terbalik (arc masuk) untuk graf berarah; dibuat saat dibutuhkan
+    private int[] inOffsets;
+    private int[] inTargets;
+
+    // Buffer delta: deltaHead[v] = arc delta terakhir v (-1 = tidak ada)
+    private int[] deltaHead = new int[16];
+    private int[] deltaNext = new int[16];
+    private int[] deltaTarget = new int[16];
+    private int deltaCount = 0;
+
+    // Himpunan arc delta (from << 32 | to) untuk cek duplikat O(1)
+    private long[] deltaKeys = new long[32];
+
+    public GraphEngine(boolean directed) {
+        this.directed = directed;
+        Arrays.fill(deltaHead, -1);
+        Arrays.fill(deltaKeys, -1);
+    }
+
+    public boolean isDirected() {
+        return directed;
+    }
+
+    public int nodeCount() {
+        return dictionary.size();
+    }
+
+    // Jumlah arc (graf tak berarah: dua kali jumlah edge)
+    public int arcCount() {
+        return targets.length + deltaCount;
+    }
+
+    // Penanda perubahan untuk cache di luar engine (indeks spasial, gambar edge)
+    public int version() {
+        return version;
+    }
+
+    public int id(String name) {
+        return dictionary.id(name);
+    }
+
+    public String name(int node) {
+        return dictionary.name(node);
+    }
+
+    // ID simpul; simpul baru dibuat di (0, 0) jika nama belum ada
+    public int addNode(String name) {
+        int count = dictionary.size();
+        int node = dictionary.add(name);
+        if (dictionary.size() != count) {
+            version++;
+        }
+        if (node == x.length) {
+            int capacity = x.length * 2;
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            deltaHead = Arrays.copyOf(deltaHead, capacity);
+            Arrays.fill(deltaHead, node, capacity, -1);
+        }
+        return node;
+    }
+
+    public int addNode(String name, float px, float py) {
+        int node = addNode(name);
+        setPosition(node, px, py);
+        return node;
+    }
+
+    public void setPosition(int node, float px, float py) {
+        checkNode(node);
+        x[node] = px;
+        y[node] = py;
+        version++;
+    }
+
+    // Ganti posisi simpul [0, min(panjang array, nodeCount())) sekaligus
+    public void setPositions(float[] px, float[] py) {
+        int count = Math.min(Math.min(px.length, py.length), nodeCount());
+        System.arraycopy(px, 0, x, 0, count);
+        System.arraycopy(py, 0, y, 0, count);
+        version++;
+    }
+
+    public float x(int node) {
+        return x[node];
+    }
+
+    public float y(int node) {
+        return y[node];
+    }
+
+    // Tambah edge jika belum ada; hasilnya false untuk duplikat
+    public boolean addEdge(String from, String to) {
+        return addEdge(addNode(from), addNode(to));
+    }
+
+    public boolean addEdge(int from, int to) {
+        checkNode(from);
+        checkNode(to);
+        if (hasEdge(from, to)) {
+            return false;
+        }
+        inOffsets = null;
+        inTargets = null;
+        version++;
+        addArc(from, to);
+        if (!directed && from != to) {
+            addArc(to, from);
+        }
+        if (deltaCount > Math.max(MIN_DELTA_COMPACT, targets.length / 4)) {
+            compact();
+        }
+        return true;
+    }
+
+    // Cari biner di baris CSR, lalu di himpunan delta
+    public boolean hasEdge(int from, int to) {
+        if (from < csrNodes && Arrays.binarySearch(targets, offsets[from], offsets[from + 1], to) >= 0) {
+            return true;
+        }
+        return deltaCount > 0 && findKey(arcKey(from, to)) >= 0;
+    }
+
+    public int degree(int node) {
+        checkNode(node);
+        int degree = node < csrNodes ? offsets[node + 1] - offsets[node] : 0;
+        for (int arc = deltaHead[node]; arc >= 0; arc = deltaNext[arc]) {
+            degree++;
+        }
+        return degree;
+    }
+
+    // Kunjungi semua tetangga keluar; baris CSR dulu, lalu arc delta
+    public void forEachNeighbor(int node, IntConsumer action) {
+        checkNode(node);
+        if (node < csrNodes) {
+            for (int i = offsets[node], end = offsets[node + 1]; i < end; i++) {
+                action.accept(targets[i]);
+            }
+        }
+        for (int arc = deltaHead[node]; arc >= 0; arc = deltaNext[arc]) {
+            action.accept(deltaTarget[arc]);
+        }
+    }
+
+    // Array CSR setelah compact(); untuk traversal yang membaca langsung.
+    // Panjang offsets() adalah nodeCount() + 1.
+    int[] offsets() {
+        compact();
+        return offsets;
+    }
+
+    int[] targets() {
+        compact();
+        return targets;
+    }
+
+    // CSR arc masuk: sumber arc ke v ada di inTargets()[inOffsets()[v] ..
+    // inOffsets()[v + 1]), terurut naik. Graf tak berarah memakai CSR biasa.
+    int[] inOffsets() {
+        buildIncoming();
+        return inOffsets;
+    }
+
+    int[] inTargets() {
+        buildIncoming();
+        return inTargets;
+    }
+
+    // Transpos dengan counting sort; sumber dikunjungi urut naik sehingga
+    // setiap baris hasilnya juga terurut
+    private void buildIncoming() {
+        compact();
+        if (!directed) {
+            inOffsets = offsets;
+            inTargets = targets;
+        }
+        if (inOffsets != null) {
+            return;
+        }
+        int n = csrNodes;
+        int[] counts = new int[n + 1];
+        for (int target : targets) {
+            counts[target + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            counts[v + 1] += counts[v];
+        }
+        int[] sources = new int[targets.length];
+        int[] next = Arrays.copyOf(counts, n);
+        for (int u = 0; u < n; u++) {
+            for (int i = offsets[u], end = offsets[u + 1]; i < end; i++) {
+                sources[next[targets[i]]++] = u;
+            }
+        }
+        inOffsets = counts;
+        inTargets = sources;
+    }
+
+    // Gabungkan buffer delta ke CSR: hitung derajat baru, salin baris lama dan
+    // rantai delta ke posisinya, lalu urutkan setiap baris
+    public void compact() {
+        int n = nodeCount();
+        if (deltaCount == 0 && csrNodes == n) {
+            return;
+        }
+        int[] newOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int degree = v < csrNodes ? offsets[v + 1] - offsets[v] : 0;
+            for (int arc = deltaHead[v]; arc >= 0; arc = deltaNext[arc]) {
+                degree++;
+            }
+            newOffsets[v + 1] = newOffsets[v] + degree;
+        }
+        int[] newTargets = new int[newOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            int p = newOffsets[v];
+            if (v < csrNodes) {
+                int length = offsets[v + 1] - offsets[v];
+                System.arraycopy(targets, offsets[v], newTargets, p, length);
+                p += length;
+            }
+            for (int arc = deltaHead[v]; arc >= 0; arc = deltaNext[arc]) {
+                newTargets[p++] = deltaTarget[arc];
+            }
+            Arrays.sort(newTargets, newOffsets[v], p);
+            deltaHead[v] = -1;
+        }
+        offsets = newOffsets;
+        targets = newTargets;
+        inOffsets = null;
+        inTargets = null;
+        csrNodes = n;
+        deltaCount = 0;
+        deltaNext = new int[16];
+        deltaTarget = new int[16];
+        deltaKeys = new long[32];
+        Arrays.fill(deltaKeys, -1);
+    }
+
+    private void addArc(int from, int to) {
+        if (deltaCount == deltaTarget.length) {
+            deltaNext = Arrays.copyOf(deltaNext, deltaCount * 2);
+            deltaTarget = Arrays.copyOf(deltaTarget, deltaCount * 2);
+        }
+        int arc = deltaCount++;
+        deltaTarget[arc] = to;
+        deltaNext[arc] = deltaHead[from];
+        deltaHead[from] = arc;
+
+        if (2 * deltaCount > deltaKeys.length) {
+            long[] old = deltaKeys;
+            deltaKeys = new long[old.length * 2];
+            Arrays.fill(deltaKeys, -1);
+            for (long key : old) {
+                if (key >= 0) {
+                    deltaKeys[-findKey(key) - 1] = key;
+                }
+            }
+        }
+        long key = arcKey(from, to);
+        deltaKeys[-findKey(key) - 1] = key;
+    }
+
+    // Slot kunci jika ada, atau -(slot kosong) - 1 jika tidak ada
+    private int findKey(long key) {
+        int mask = deltaKeys.length - 1;
+        long h = key * 0x9E3779B97F4A7C15L;
+        int i = (int) (h ^ (h >>> 32)) & mask;
+        while (deltaKeys[i] >= 0) {
+            if (deltaKeys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -i - 1;
+    }
+
+    private static long arcKey(int from, int to) {
+        return ((long) from << 32) | to;
+    }
+
+    private void checkNode(int node) {
+        if (node < 0 || node >= nodeCount()) {
+            throw new IndexOutOfBoundsException("ID simpul tidak valid: " + node);
+        }
+    }
+}
\ No newline at end of file
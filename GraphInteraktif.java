@@ -3,42 +3,45 @@ package cls.grap;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
-import java.util.*;
-import java.util.List;
 
-public class GraphInteraktif extends JPanel {
-    private Map<String, Point> posisiNode = new HashMap<>();
-    private Map<String, List<String>> adjacencyList = new HashMap<>();
-    private Set<String> visited = new HashSet<>();
+// Simpul, koordinat, dan edge berarah disimpan di GraphEngine; simpul
+// dirujuk dengan ID int-nya. Pan, zoom, dan klik diurus GraphCanvas.
+public class GraphInteraktif extends GraphCanvas {
+    // Traversal direkam penuh ke TraversalTrace lalu diputar oleh player di EDT
+    private TracePlayer player = null;
+    private double speed = 1.0;
+    private Runnable playerListener = null;
     private String startNode = "A";
-    private String selectedNode = null;
+    private int selectedNode = -1;
     private boolean addingEdgeMode = false;
 
     public GraphInteraktif() {
+        super(new GraphEngine(true));
+
         // Posisi awal node
-        posisiNode.put("A", new Point(100, 100));
-        posisiNode.put("B", new Point(250, 80));
-        posisiNode.put("C", new Point(200, 200));
-        posisiNode.put("D", new Point(350, 150));
-        posisiNode.put("E", new Point(120, 250));
+        graph.addNode("A", 100, 100);
+        graph.addNode("B", 250, 80);
+        graph.addNode("C", 200, 200);
+        graph.addNode("D", 350, 150);
+        graph.addNode("E", 120, 250);
 
         // Tambahkan edge default
-        tambahEdge("A", "B");
-        tambahEdge("A", "C");
-        tambahEdge("B", "D");
+        tambahEdge(graph.id("A"), graph.id("B"));
+        tambahEdge(graph.id("A"), graph.id("C"));
+        tambahEdge(graph.id("B"), graph.id("D"));
 
         // Tambahkan listener klik mouse
         addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
                 if (addingEdgeMode) {
-                    String clickedNode = getNodeAt(e.getPoint());
-                    if (clickedNode != null) {
-                        if (selectedNode == null) {
+                    int clickedNode = nodeAt(e.getPoint()); // ID node atau -1
+                    if (clickedNode >= 0) {
+                        if (selectedNode < 0) {
                             selectedNode = clickedNode;
                         } else {
                             tambahEdge(selectedNode, clickedNode);
-                            selectedNode = null;
+                            selectedNode = -1;
                             addingEdgeMode = false;
                             repaint();
                             JOptionPane.showMessageDialog(null, "Edge ditambahkan!");
@@ -49,57 +52,40 @@ public class GraphInteraktif extends JPanel {
         });
     }
 
-    // Menambahkan edge berarah
-    private void tambahEdge(String from, String to) {
-        adjacencyList.putIfAbsent(from, new ArrayList<>());
-        if (!adjacencyList.get(from).contains(to)) {
-            adjacencyList.get(from).add(to);
-        }
+    // Menambahkan edge berarah (duplikat diabaikan oleh GraphEngine)
+    private void tambahEdge(int from, int to) {
+        graph.addEdge(from, to);
     }
 
-    // Cek apakah klik mengenai node
-    private String getNodeAt(Point point) {
-        for (Map.Entry<String, Point> entry : posisiNode.entrySet()) {
-            Point p = entry.getValue();
-            if (point.distance(p) <= 20) {
-                return entry.getKey();
-            }
-        }
-        return null;
+    // Gambar edge berarah
+    @Override
+    protected void drawEdge(Graphics2D g2, int from, int to) {
+        drawArrowLine(g2, (int) graph.x(from), (int) graph.y(from), (int) graph.x(to), (int) graph.y(to), 10, 7);
     }
 
-    // Gambar graf
+    // Arc yang sedang diperiksa traversal
     @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
-        setBackground(Color.WHITE);
-        Graphics2D g2 = (Graphics2D) g;
-        g2.setStroke(new BasicStroke(2));
-
-        // Gambar edge
-        g2.setColor(Color.GRAY);
-        for (String node : adjacencyList.keySet()) {
-            Point p1 = posisiNode.get(node);
-            for (String tetangga : adjacencyList.get(node)) {
-                Point p2 = posisiNode.get(tetangga);
-                drawArrowLine(g2, p1.x, p1.y, p2.x, p2.y, 10, 7);
-            }
+    protected void drawOverlay(Graphics2D g2) {
+        if (player != null && player.currentEdgeFrom() >= 0) {
+            int from = player.currentEdgeFrom();
+            int to = player.currentEdgeTo();
+            g2.setColor(Color.RED);
+            drawEdge(g2, from, to);
         }
+    }
 
-        // Gambar node
-        for (String node : posisiNode.keySet()) {
-            Point p = posisiNode.get(node);
-            if (visited.contains(node)) {
-                g2.setColor(new Color(102, 205, 170)); // hijau saat dikunjungi
-            } else if (node.equals(selectedNode)) {
-                g2.setColor(Color.ORANGE); // node yang dipilih
-            } else {
-                g2.setColor(new Color(100, 150, 255)); // default
-            }
-            g2.fillOval(p.x - 20, p.y - 20, 40, 40);
-            g2.setColor(Color.BLACK);
-            g2.drawOval(p.x - 20, p.y - 20, 40, 40);
-            g2.drawString(node, p.x - 5, p.y + 5);
+    // Warna node menurut status traversal dan pilihan
+    @Override
+    protected Color nodeColor(int node) {
+        byte status = player != null ? player.state(node) : TracePlayer.UNSEEN;
+        if (status == TracePlayer.VISITED) {
+            return new Color(102, 205, 170); // hijau saat dikunjungi
+        } else if (status == TracePlayer.DISCOVERED) {
+            return new Color(255, 235, 130); // kuning saat masuk antrian
+        } else if (node == selectedNode) {
+            return Color.ORANGE; // node yang dipilih
+        } else {
+            return new Color(100, 150, 255); // default
         }
     }
 
@@ -137,61 +123,57 @@ public class GraphInteraktif extends JPanel {
     }
 
     // ======== Traversal BFS =========
-    private void runBFS(String start) {
-        new Thread(() -> {
-            SwingUtilities.invokeLater(() -> {
-                visited.clear();
-                repaint();
-            });
-            delay();
-            Queue<String> queue = new LinkedList<>();
-            queue.add(start);
-            visited.add(start);
-            repaint();
-            delay();
-            while (!queue.isEmpty()) {
-                String node = queue.poll();
-                for (String tetangga : adjacencyList.getOrDefault(node, Collections.emptyList())) {
-                    if (!visited.contains(tetangga)) {
-                        visited.add(tetangga);
-                        repaint();
-                        delay();
-                        queue.add(tetangga);
-                    }
-                }
-            }
-        }).start();
+    // Traversal selesai seketika; animasinya diputar oleh TracePlayer
+    private void runBFS(String startName) {
+        int start = graph.id(startName);
+        if (start < 0) return;
+        putar(GraphAlgorithms.recordBfs(graph, start));
     }
 
     // ======== Traversal DFS =========
-    private void runDFS(String start) {
-        new Thread(() -> {
-            SwingUtilities.invokeLater(() -> {
-                visited.clear();
-                repaint();
-            });
-            delay();
-            dfsRecursive(start);
-        }).start();
+    private void runDFS(String startName) {
+        int start = graph.id(startName);
+        if (start < 0) return;
+        putar(GraphAlgorithms.recordDfs(graph, start));
     }
 
-    private void dfsRecursive(String node) {
-        visited.add(node);
-        repaint();
-        delay();
-        for (String tetangga : adjacencyList.getOrDefault(node, Collections.emptyList())) {
-            if (!visited.contains(tetangga)) {
-                dfsRecursive(tetangga);
+    // Ganti player lama (jika ada) dengan player untuk trace baru
+    private void putar(TraversalTrace trace) {
+        if (player != null) {
+            player.pause();
+        }
+        player = new TracePlayer(trace, graph.nodeCount(), () -> {
+            repaint();
+            if (playerListener != null) {
+                playerListener.run();
             }
+        });
+        player.setSpeed(speed);
+        player.play();
+    }
+
+    private void setSpeed(double speed) {
+        this.speed = speed;
+        if (player != null) {
+            player.setSpeed(speed);
         }
     }
 
-    private void delay() {
+    // Tampilkan urutan topologis, atau jumlah komponen terhubung kuat jika
+    // graf memiliki siklus
+    private void tampilkanUrutan(Component parent) {
+        String pesan;
         try {
-            Thread.sleep(700);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            StringBuilder sb = new StringBuilder("Urutan topologis:");
+            for (int node : GraphAlgorithms.topologicalOrder(graph)) {
+                sb.append(' ').append(graph.name(node));
+            }
+            pesan = sb.toString();
+        } catch (IllegalStateException e) {
+            int jumlah = GraphAlgorithms.stronglyConnectedComponents(graph, new int[graph.nodeCount()]);
+            pesan = e.getMessage() + ".\nJumlah komponen terhubung kuat: " + jumlah;
         }
+        JOptionPane.showMessageDialog(parent, pesan);
     }
 
     // ======== Main GUI ========
@@ -203,25 +185,83 @@ public class GraphInteraktif extends JPanel {
             JButton btnBFS = new JButton("Mulai BFS");
             JButton btnDFS = new JButton("Mulai DFS");
             JButton btnAddEdge = new JButton("Tambah Edge");
+            JButton btnTopo = new JButton("Urutan Topologis");
+            JButton btnLayout = new JButton("Tata Letak Otomatis");
+            JButton btnJeda = new JButton("Jeda/Lanjut");
+            JButton btnLangkah = new JButton("Langkah");
+            JButton btnBatal = new JButton("Batal");
+            JComboBox<String> pilihKecepatan = new JComboBox<>(new String[] {"0.25x", "0.5x", "1x", "2x", "4x", "16x"});
+            pilihKecepatan.setSelectedItem("1x");
+            JSlider geser = new JSlider(0, 0, 0);
 
             btnBFS.addActionListener(e -> panel.runBFS(panel.startNode));
             btnDFS.addActionListener(e -> panel.runDFS(panel.startNode));
+            btnTopo.addActionListener(e -> panel.tampilkanUrutan(frame));
+            btnLayout.addActionListener(e -> panel.startLayout());
+            btnJeda.addActionListener(e -> {
+                if (panel.player == null) return;
+                if (panel.player.isPlaying()) {
+                    panel.player.pause();
+                } else {
+                    panel.player.play();
+                }
+            });
+            btnLangkah.addActionListener(e -> {
+                if (panel.player != null) panel.player.step();
+            });
+            btnBatal.addActionListener(e -> {
+                if (panel.player != null) panel.player.cancel();
+            });
+            pilihKecepatan.addActionListener(e -> {
+                String pilihan = (String) pilihKecepatan.getSelectedItem();
+                panel.setSpeed(Double.parseDouble(pilihan.substring(0, pilihan.length() - 1)));
+            });
+
+            // Slider mengikuti posisi player; geseran oleh pengguna memindah player
+            boolean[] sinkron = {false};
+            panel.playerListener = () -> {
+                sinkron[0] = true;
+                geser.setMaximum(panel.player.length());
+                geser.setValue(panel.player.position());
+                sinkron[0] = false;
+            };
+            geser.addChangeListener(e -> {
+                if (!sinkron[0] && panel.player != null) {
+                    panel.player.pause();
+                    panel.player.seek(geser.getValue());
+                }
+            });
+
             btnAddEdge.addActionListener(e -> {
                 panel.addingEdgeMode = true;
-                panel.selectedNode = null;
+                panel.selectedNode = -1;
                 JOptionPane.showMessageDialog(frame, 
                     "Klik dua simpul secara berurutan untuk menambahkan edge berarah (dari node pertama ke node kedua).");
             });
 
-            JPanel controlPanel = new JPanel();
-            controlPanel.add(btnAddEdge);
-            controlPanel.add(btnBFS);
-            controlPanel.add(btnDFS);
+            JPanel graphPanel = new JPanel();
+            graphPanel.add(btnAddEdge);
+            graphPanel.add(btnBFS);
+            graphPanel.add(btnDFS);
+            graphPanel.add(btnTopo);
+            graphPanel.add(btnLayout);
+
+            JPanel playerPanel = new JPanel();
+            playerPanel.add(btnJeda);
+            playerPanel.add(btnLangkah);
+            playerPanel.add(btnBatal);
+            playerPanel.add(new JLabel("Kecepatan:"));
+            playerPanel.add(pilihKecepatan);
+            playerPanel.add(geser);
+
+            JPanel controlPanel = new JPanel(new GridLayout(2, 1));
+            controlPanel.add(graphPanel);
+            controlPanel.add(playerPanel);
 
             frame.setLayout(new BorderLayout());
             frame.add(panel, BorderLayout.CENTER);
             frame.add(controlPanel, BorderLayout.SOUTH);
-            frame.setSize(600, 450);
+            frame.setSize(800, 500);
             frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
             frame.setLocationRelativeTo(null);
             frame.setVisible(true);
@@ -0,0 +1,74 @@
+package cls.grap;
+
+import java.util.Arrays;
+
+// Kamus nama simpul ke ID int (0, 1, 2, ...) dengan open addressing.
+// Slot berisi ID + 1 (0 = kosong) sehingga tidak ada objek Integer per simpul.
+public class NodeDictionary {
+    private String[] names = new String[16];
+    private int[] slots = new int[32];
+    private int size = 0;
+
+    public int size() {
+        return size;
+    }
+
+    // ID untuk nama, atau -1 jika belum terdaftar
+    public int id(String name) {
+        int mask = slots.length - 1;
+        for (int i = hash(name) & mask; slots[i] != 0; i = (i + 1) & mask) {
+            int id = slots[i] - 1;
+            if (names[id].equals(name)) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    public String name(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("ID simpul tidak valid: " + id);
+        }
+        return names[id];
+    }
+
+    // ID nama yang sudah ada, atau ID baru (= size sebelumnya) jika belum ada
+    public int add(String name) {
+        int existing = id(name);
+        if (existing >= 0) {
+            return existing;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        // Faktor beban maksimum 1/2 agar rantai probing tetap pendek
+        if (2 * (size + 1) > slots.length) {
+            rehash(slots.length * 2);
+        }
+        int id = size++;
+        names[id] = name;
+        insert(id);
+        return id;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            insert(id);
+        }
+    }
+
+    private void insert(int id) {
+        int mask = slots.length - 1;
+        int i = hash(names[id]) & mask;
+        while (slots[i] != 0) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = id + 1;
+    }
+
+    private static int hash(String name) {
+        int h = name.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,319 @@
+package cls.grap;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// BFS tanpa animasi di atas GraphEngine dengan strategi direction-optimizing
+// (Beamer dkk.). Top-down: setiap node di frontier memeriksa arc keluarnya,
+// dan node baru diklaim lewat CAS pada bitset visited. Bottom-up: setiap node
+// yang belum dikunjungi mencari satu induk di frontier lewat arc masuknya dan
+// berhenti di induk pertama; ini jauh lebih murah saat frontier besar.
+// Kedua arah dipecah ke ForkJoinPool.
+//
+// Graf tidak boleh diubah selama run() berjalan.
+public class ParallelBfs {
+    // Pindah ke bottom-up jika arc dari frontier > arc belum dijelajahi / ALPHA,
+    // kembali ke top-down jika frontier mengecil dan < jumlah node / BETA
+    private static final int ALPHA = 14;
+    private static final int BETA = 24;
+    // Ukuran potongan per task: node frontier (top-down) atau word bitset (bottom-up)
+    private static final int NODE_GRAIN = 2048;
+    private static final int WORD_GRAIN = 64;
+
+    private final GraphEngine graph;
+    private final ForkJoinPool pool;
+
+    public ParallelBfs(GraphEngine graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+
+    public ParallelBfs(GraphEngine graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    public Result run(String source) {
+        int node = graph.id(source);
+        if (node < 0) {
+            throw new IllegalArgumentException("Simpul tidak ditemukan: " + source);
+        }
+        return run(node);
+    }
+
+    public Result run(int source) {
+        return new Search(source).run();
+    }
+
+    // Hasil BFS: level (jarak dalam arc) dan induk di pohon BFS per node.
+    // Node yang tidak terjangkau berlevel dan berinduk -1; induk sumber adalah
+    // sumber itu sendiri.
+    public static final class Result {
+        private final int[] level;
+        private final int[] parent;
+        private final int reached;
+        private final int depth;
+
+        private Result(int[] level, int[] parent, int reached, int depth) {
+            this.level = level;
+            this.parent = parent;
+            this.reached = reached;
+            this.depth = depth;
+        }
+
+        public int[] levels() {
+            return level;
+        }
+
+        public int[] parents() {
+            return parent;
+        }
+
+        public boolean isReachable(int node) {
+            return level[node] >= 0;
+        }
+
+        // Jumlah node terjangkau, termasuk sumber
+        public int reachedCount() {
+            return reached;
+        }
+
+        // Level terbesar yang dicapai
+        public int depth() {
+            return depth;
+        }
+    }
+
+    // Status satu pencarian; task membaca array-nya langsung
+    private final class Search {
+        private final int n;
+        private final int source;
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] inOffsets;
+        private final int[] inTargets;
+        private final int[] level;
+        private final int[] parent;
+        private final AtomicLongArray visited;
+        private final int words;
+
+        // Frontier sebagai daftar (top-down) atau bitset (bottom-up)
+        private int[] frontier;
+        private int[] next;
+        private final AtomicInteger nextSize = new AtomicInteger();
+        private long[] frontierBits;
+        private long[] nextBits;
+        private int depth;
+
+        Search(int source) {
+            this.n = graph.nodeCount();
+            if (source < 0 || source >= n) {
+                throw new IndexOutOfBoundsException("ID simpul tidak valid: " + source);
+            }
+            this.source = source;
+            this.offsets = graph.offsets();
+            this.targets = graph.targets();
+            this.inOffsets = graph.inOffsets();
+            this.inTargets = graph.inTargets();
+            this.level = new int[n];
+            this.parent = new int[n];
+            this.words = (n + 63) >>> 6;
+            this.visited = new AtomicLongArray(words);
+        }
+
+        Result run() {
+            Arrays.fill(level, -1);
+            Arrays.fill(parent, -1);
+            level[source] = 0;
+            parent[source] = source;
+            visited.set(source >>> 6, 1L << source);
+            frontier = new int[n];
+            next = new int[n];
+            frontier[0] = source;
+            int frontierSize = 1;
+            int reached = 1;
+
+            long frontierArcs = degree(source);
+            long unexploredArcs = targets.length - frontierArcs;
+            boolean bottomUp = false;
+            while (frontierSize > 0) {
+                if (!bottomUp && frontierArcs > unexploredArcs / ALPHA) {
+                    bottomUp = true;
+                    toBits(frontierSize);
+                }
+                long[] counts;
+                if (bottomUp) {
+                    counts = pool.invoke(new BottomUpStep(0, words));
+                    long[] swap = frontierBits;
+                    frontierBits = nextBits;
+                    nextBits = swap;
+                } else {
+                    nextSize.set(0);
+                    counts = pool.invoke(new TopDownStep(0, frontierSize));
+                    int[] swap = frontier;
+                    frontier = next;
+                    next = swap;
+                }
+                depth++;
+                int previousSize = frontierSize;
+                frontierSize = (int) counts[0];
+                frontierArcs = counts[1];
+                unexploredArcs -= frontierArcs;
+                reached += frontierSize;
+                if (bottomUp && frontierSize < previousSize && frontierSize < n / BETA) {
+                    bottomUp = false;
+                    toList();
+                }
+            }
+            return new Result(level, parent, reached, depth - 1);
+        }
+
+        private long degree(int node) {
+            return offsets[node + 1] - offsets[node];
+        }
+
+        private void toBits(int frontierSize) {
+            if (frontierBits == null) {
+                frontierBits = new long[words];
+                nextBits = new long[words];
+            } else {
+                Arrays.fill(frontierBits, 0);
+            }
+            for (int i = 0; i < frontierSize; i++) {
+                int node = frontier[i];
+                frontierBits[node >>> 6] |= 1L << node;
+            }
+        }
+
+        private void toList() {
+            int size = 0;
+            for (int w = 0; w < words; w++) {
+                for (long bits = frontierBits[w]; bits != 0; bits &= bits - 1) {
+                    frontier[size++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                }
+            }
+        }
+
+        // Hasil task: {node baru, jumlah derajat keluar node baru}
+        private final class TopDownStep extends RecursiveTask<long[]> {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            TopDownStep(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected long[] compute() {
+                if (to - from > NODE_GRAIN) {
+                    int mid = (from + to) >>> 1;
+                    TopDownStep right = new TopDownStep(mid, to);
+                    right.fork();
+                    long[] counts = new TopDownStep(from, mid).compute();
+                    long[] other = right.join();
+                    counts[0] += other[0];
+                    counts[1] += other[1];
+                    return counts;
+                }
+                int[] found = new int[64];
+                int count = 0;
+                long arcs = 0;
+                int nextLevel = depth + 1;
+                for (int i = from; i < to; i++) {
+                    int u = frontier[i];
+                    for (int a = offsets[u], end = offsets[u + 1]; a < end; a++) {
+                        int v = targets[a];
+                        if (claim(v)) {
+                            level[v] = nextLevel;
+                            parent[v] = u;
+                            arcs += degree(v);
+                            if (count == found.length) {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = v;
+                        }
+                    }
+                }
+                // Satu fetch-add per potongan, bukan per node
+                System.arraycopy(found, 0, next, nextSize.getAndAdd(count), count);
+                return new long[] {count, arcs};
+            }
+
+            private boolean claim(int v) {
+                int w = v >>> 6;
+                long bit = 1L << v;
+                long bits = visited.get(w);
+                while ((bits & bit) == 0) {
+                    if (visited.compareAndSet(w, bits, bits | bit)) {
+                        return true;
+                    }
+                    bits = visited.get(w);
+                }
+                return false;
+            }
+        }
+
+        // Setiap task memiliki rentang word bitset sendiri, jadi penulisan
+        // visited dan nextBits di dalamnya tidak berebut dengan task lain
+        private final class BottomUpStep extends RecursiveTask<long[]> {
+            private static final long serialVersionUID = 1L;
+
+            private final int from;
+            private final int to;
+
+            BottomUpStep(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected long[] compute() {
+                if (to - from > WORD_GRAIN) {
+                    int mid = (from + to) >>> 1;
+                    BottomUpStep right = new BottomUpStep(mid, to);
+                    right.fork();
+                    long[] counts = new BottomUpStep(from, mid).compute();
+                    long[] other = right.join();
+                    counts[0] += other[0];
+                    counts[1] += other[1];
+                    return counts;
+                }
+                long count = 0;
+                long arcs = 0;
+                int nextLevel = depth + 1;
+                for (int w = from; w < to; w++) {
+                    long seen = visited.get(w);
+                    long found = 0;
+                    long unvisited = ~seen;
+                    if (w == words - 1 && (n & 63) != 0) {
+                        unvisited &= (1L << n) - 1;
+                    }
+                    for (; unvisited != 0; unvisited &= unvisited - 1) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(unvisited);
+                        for (int a = inOffsets[v], end = inOffsets[v + 1]; a < end; a++) {
+                            int u = inTargets[a];
+                            if ((frontierBits[u >>> 6] & (1L << u)) != 0) {
+                                level[v] = nextLevel;
+                                parent[v] = u;
+                                found |= 1L << v;
+                                count++;
+                                arcs += degree(v);
+                                break;
+                            }
+                        }
+                    }
+                    nextBits[w] = found;
+                    if (found != 0) {
+                        visited.set(w, seen | found);
+                    }
+                }
+                return new long[] {count, arcs};
+            }
+        }
+    }
+}
\ No newline at end of file
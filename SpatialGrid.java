@@ -0,0 +1,124 @@
+package cls.grap;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Indeks spasial grid seragam atas posisi simpul GraphEngine, dibangun sekali
+// per versi graf. Simpul dikelompokkan per sel dengan counting sort ke format
+// mirip CSR: simpul sel c ada di cellNodes[cellStart[c] .. cellStart[c + 1]).
+// Ukuran sel dipilih agar rata-rata sekitar satu simpul per sel, sehingga
+// pencarian di sekitar satu titik hanya memeriksa beberapa sel.
+final class SpatialGrid {
+    private final GraphEngine graph;
+    private final float minX;
+    private final float minY;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] cellStart;
+    private final int[] cellNodes;
+
+    // minCellSize biasanya diameter simpul agar pencarian klik cukup melihat 3x3 sel
+    SpatialGrid(GraphEngine graph, float minCellSize) {
+        this.graph = graph;
+        int n = graph.nodeCount();
+        float x0 = Float.MAX_VALUE;
+        float y0 = Float.MAX_VALUE;
+        float x1 = -Float.MAX_VALUE;
+        float y1 = -Float.MAX_VALUE;
+        for (int v = 0; v < n; v++) {
+            x0 = Math.min(x0, graph.x(v));
+            y0 = Math.min(y0, graph.y(v));
+            x1 = Math.max(x1, graph.x(v));
+            y1 = Math.max(y1, graph.y(v));
+        }
+        if (n == 0) {
+            x0 = y0 = x1 = y1 = 0;
+        }
+        float width = x1 - x0;
+        float height = y1 - y0;
+        float size = (float) Math.sqrt((double) width * height / Math.max(1, n));
+        // Sebaran yang sangat lonjong dibatasi 2n kolom atau baris, sehingga
+        // jumlah sel tetap O(n)
+        float limit = Math.max(width, height) / (2 * Math.max(1, n));
+        this.cellSize = Math.max(Math.max(minCellSize, size), limit);
+        this.minX = x0;
+        this.minY = y0;
+        this.columns = (int) (width / cellSize) + 1;
+        this.rows = (int) (height / cellSize) + 1;
+
+        int cells = columns * rows;
+        int[] start = new int[cells + 1];
+        int[] cellOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            int c = row(graph.y(v)) * columns + column(graph.x(v));
+            cellOf[v] = c;
+            start[c + 1]++;
+        }
+        for (int c = 0; c < cells; c++) {
+            start[c + 1] += start[c];
+        }
+        int[] next = Arrays.copyOf(start, cells);
+        int[] nodes = new int[n];
+        for (int v = 0; v < n; v++) {
+            nodes[next[cellOf[v]]++] = v;
+        }
+        this.cellStart = start;
+        this.cellNodes = nodes;
+    }
+
+    // Simpul dalam persegi panjang [x0, x1] x [y0, y1]
+    void forEachIn(float x0, float y0, float x1, float y1, IntConsumer action) {
+        int c0 = column(x0);
+        int c1 = column(x1);
+        int r0 = row(y0);
+        int r1 = row(y1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                for (int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+                    int v = cellNodes[i];
+                    float x = graph.x(v);
+                    float y = graph.y(v);
+                    if (x >= x0 && x <= x1 && y >= y0 && y <= y1) {
+                        action.accept(v);
+                    }
+                }
+            }
+        }
+    }
+
+    // Simpul terdekat dalam jarak radius dari (x, y), atau -1
+    int nearest(float x, float y, float radius) {
+        int best = -1;
+        float bestDistance = radius * radius;
+        for (int r = row(y - radius), r1 = row(y + radius); r <= r1; r++) {
+            for (int c = column(x - radius), c1 = column(x + radius); c <= c1; c++) {
+                int cell = r * columns + c;
+                for (int i = cellStart[cell], end = cellStart[cell + 1]; i < end; i++) {
+                    int v = cellNodes[i];
+                    float dx = graph.x(v) - x;
+                    float dy = graph.y(v) - y;
+                    float distance = dx * dx + dy * dy;
+                    if (distance <= bestDistance) {
+                        bestDistance = distance;
+                        best = v;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private int column(float x) {
+        return clamp((int) Math.floor((x - minX) / cellSize), columns);
+    }
+
+    private int row(float y) {
+        return clamp((int) Math.floor((y - minY) / cellSize), rows);
+    }
+
+    private static int clamp(int index, int count) {
+        return index < 0 ? 0 : Math.min(index, count - 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,131 @@
+package cls.grap;
+
+import javax.swing.Timer;
+import java.util.Arrays;
+
+// Memutar TraversalTrace di EDT dengan javax.swing.Timer. Posisi p berarti
+// event [0, p) sudah diterapkan ke status node. Semua method dipanggil dari
+// EDT, sehingga paintComponent membaca status tanpa sinkronisasi.
+public final class TracePlayer {
+    // Status node hasil event yang sudah diputar
+    public static final byte UNSEEN = 0;
+    public static final byte DISCOVERED = 1;
+    public static final byte VISITED = 2;
+
+    private static final int BASE_DELAY = 700;
+
+    private final TraversalTrace trace;
+    private final byte[] state;
+    private final Timer timer;
+    private final Runnable onChange;
+    private int position = 0;
+
+    // onChange dipanggil setiap kali posisi atau status berubah
+    public TracePlayer(TraversalTrace trace, int nodeCount, Runnable onChange) {
+        this.trace = trace;
+        this.state = new byte[nodeCount];
+        this.onChange = onChange;
+        this.timer = new Timer(BASE_DELAY, e -> {
+            advance();
+            if (position == trace.size()) {
+                pause();
+            }
+            onChange.run();
+        });
+    }
+
+    public void play() {
+        if (position < trace.size()) {
+            timer.start();
+        }
+        onChange.run();
+    }
+
+    public void pause() {
+        timer.stop();
+    }
+
+    public boolean isPlaying() {
+        return timer.isRunning();
+    }
+
+    // Maju satu event lalu berhenti
+    public void step() {
+        pause();
+        advance();
+        onChange.run();
+    }
+
+    // Kembali ke awal dan hentikan pemutaran; semua node kembali UNSEEN
+    public void cancel() {
+        pause();
+        seek(0);
+    }
+
+    // Kecepatan relatif terhadap 700 ms per event (mis. 2.0 = dua kali lebih cepat)
+    public void setSpeed(double speed) {
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Kecepatan harus positif: " + speed);
+        }
+        int delay = (int) Math.max(1, Math.round(BASE_DELAY / speed));
+        timer.setDelay(delay);
+        timer.setInitialDelay(delay);
+    }
+
+    // Pindah ke posisi mana pun. Maju menerapkan event berikutnya; mundur
+    // memutar ulang dari awal karena status tidak menyimpan riwayat.
+    public void seek(int target) {
+        target = Math.max(0, Math.min(target, trace.size()));
+        if (target < position) {
+            Arrays.fill(state, UNSEEN);
+            position = 0;
+        }
+        while (position < target) {
+            apply(position++);
+        }
+        onChange.run();
+    }
+
+    public int position() {
+        return position;
+    }
+
+    public int length() {
+        return trace.size();
+    }
+
+    public byte state(int node) {
+        return node < state.length ? state[node] : UNSEEN;
+    }
+
+    // Arc yang diperiksa pada event terakhir, atau -1 jika event terakhir bukan EDGE
+    public int currentEdgeFrom() {
+        return position > 0 && trace.type(position - 1) == TraversalTrace.EDGE ? trace.from(position - 1) : -1;
+    }
+
+    public int currentEdgeTo() {
+        return position > 0 && trace.type(position - 1) == TraversalTrace.EDGE ? trace.node(position - 1) : -1;
+    }
+
+    private boolean advance() {
+        if (position == trace.size()) {
+            return false;
+        }
+        apply(position++);
+        return true;
+    }
+
+    private void apply(int event) {
+        int node = trace.node(event);
+        switch (trace.type(event)) {
+            case TraversalTrace.ENQUEUE:
+                state[node] = DISCOVERED;
+                break;
+            case TraversalTrace.VISIT:
+                state[node] = VISITED;
+                break;
+            default:
+                break;
+        }
+    }
+}
\ No newline at end of file
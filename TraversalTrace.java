@@ -0,0 +1,49 @@
+package cls.grap;
+
+import java.util.Arrays;
+
+// Rekaman langkah traversal sebagai tiga array sejajar (jenis, node, asal).
+// Traversal berjalan sampai selesai dengan kecepatan penuh sambil menulis
+// event ke sini; animasinya diputar ulang belakangan oleh TracePlayer.
+public final class TraversalTrace {
+    // Arc from -> node sedang diperiksa
+    public static final byte EDGE = 0;
+    // node ditemukan dari from dan masuk antrian/stack
+    public static final byte ENQUEUE = 1;
+    // node diproses (from = -1 untuk node awal)
+    public static final byte VISIT = 2;
+
+    private byte[] types = new byte[64];
+    private int[] nodes = new int[64];
+    private int[] froms = new int[64];
+    private int size = 0;
+
+    void add(byte type, int node, int from) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            nodes = Arrays.copyOf(nodes, capacity);
+            froms = Arrays.copyOf(froms, capacity);
+        }
+        types[size] = type;
+        nodes[size] = node;
+        froms[size] = from;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte type(int event) {
+        return types[event];
+    }
+
+    public int node(int event) {
+        return nodes[event];
+    }
+
+    public int from(int event) {
+        return froms[event];
+    }
+}
\ No newline at end of file